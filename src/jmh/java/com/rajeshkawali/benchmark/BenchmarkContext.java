@@ -0,0 +1,32 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.SpringbootBatchApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application without web server and SQL logging, for benchmarks that need the database.
+ *
+ * @author Rajesh_Kawali
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	public static ConfigurableApplicationContext start(String... properties) {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.main.web-application-type=none",
+				"--spring.main.banner-mode=off",
+				"--spring.jpa.show-sql=false",
+				"--logging.level.root=WARN",
+				"--logging.level.com.rajeshkawali=WARN"));
+		Arrays.stream(properties).map(property -> "--" + property).forEach(args::add);
+		return SpringApplication.run(SpringbootBatchApplication.class, args.toArray(String[]::new));
+	}
+}
@@ -0,0 +1,76 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.config.DataSourceConfig;
+import com.rajeshkawali.entity.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to write and commit one import chunk into H2 with each writer mode of the import job.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkWriteBenchmark {
+
+	@Param({ "repository", "jdbc-batch", "multi-row" })
+	public String writerMode;
+
+	@Param({ "1000" })
+	public int chunkSize;
+
+	private ConfigurableApplicationContext context;
+	private ItemWriter<Customer> writer;
+	private TransactionTemplate transactionTemplate;
+	private int nextRow;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		context = BenchmarkContext.start("customer.import.writer.mode=" + writerMode);
+		writer = context.getBean("customerWriter", ItemWriter.class);
+		transactionTemplate = new TransactionTemplate(
+				context.getBean(DataSourceConfig.BULK_TRANSACTION_MANAGER, PlatformTransactionManager.class));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void writeChunk() {
+		List<Customer> customers = CustomerCsvData.customers(nextRow, chunkSize);
+		nextRow += chunkSize;
+		transactionTemplate.executeWithoutResult(status -> {
+			try {
+				writer.write(new Chunk<>(customers));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+}
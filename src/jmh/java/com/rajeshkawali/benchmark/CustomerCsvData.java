@@ -0,0 +1,88 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.entity.Customer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic customer data for the benchmarks, in the column layout of customers.csv.
+ * The same row number always gives the same customer.
+ *
+ * @author Rajesh_Kawali
+ */
+public final class CustomerCsvData {
+
+	public static final String HEADER = "id,firstName,surname,smoothiePreference,mobileNumber";
+
+	/** Number of distinct first names and surnames, so surname lookups return several rows. */
+	public static final int DISTINCT_NAMES = 1000;
+
+	private static final String[] SMOOTHIES = { "Mango", "Strawberry", "Banana", "Blueberry", "Kiwi" };
+
+	private CustomerCsvData() {
+	}
+
+	public static String firstName(long row) {
+		return "First" + (row % DISTINCT_NAMES);
+	}
+
+	public static String surname(long row) {
+		return "Surname" + ((row * 7) % DISTINCT_NAMES);
+	}
+
+	public static String line(long row) {
+		return (row + 1) + "," + firstName(row) + "," + surname(row) + "," + SMOOTHIES[(int) (row % SMOOTHIES.length)]
+				+ "," + (9000000000L + row);
+	}
+
+	public static List<String> lines(int rows) {
+		List<String> lines = new ArrayList<>(rows);
+		for (int row = 0; row < rows; row++) {
+			lines.add(line(row));
+		}
+		return lines;
+	}
+
+	public static String csv(int rows) {
+		StringBuilder csv = new StringBuilder(HEADER.length() + rows * 48);
+		csv.append(HEADER).append('\n');
+		for (int row = 0; row < rows; row++) {
+			csv.append(line(row)).append('\n');
+		}
+		return csv.toString();
+	}
+
+	public static Path writeFile(Path file, long rows) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(HEADER);
+			writer.newLine();
+			for (long row = 0; row < rows; row++) {
+				writer.write(line(row));
+				writer.newLine();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Customers without id, as the database assigns them on insert.
+	 */
+	public static List<Customer> customers(int fromRow, int rows) {
+		List<Customer> customers = new ArrayList<>(rows);
+		for (int row = fromRow; row < fromRow + rows; row++) {
+			customers.add(Customer.builder()
+					.firstName(firstName(row))
+					.surname(surname(row))
+					.smoothiePreference(SMOOTHIES[row % SMOOTHIES.length])
+					.mobileNumber(9000000000L + row)
+					.build());
+		}
+		return customers;
+	}
+}
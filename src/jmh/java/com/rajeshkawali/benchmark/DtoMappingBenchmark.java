@@ -0,0 +1,51 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Util#entityToDto} and {@link Util#dtoToEntity}.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+	private Customer customer;
+	private CustomerDTO customerDTO;
+
+	@Setup
+	public void setUp() {
+		customer = CustomerCsvData.customers(0, 1).get(0);
+		customer.setId(1L);
+		customerDTO = Util.entityToDto(customer);
+	}
+
+	@Benchmark
+	public CustomerDTO entityToDto() {
+		return Util.entityToDto(customer);
+	}
+
+	@Benchmark
+	public Customer dtoToEntity() {
+		return Util.dtoToEntity(customerDTO);
+	}
+}
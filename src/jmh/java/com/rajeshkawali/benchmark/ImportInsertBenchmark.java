@@ -0,0 +1,65 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second of the csv upload path for different id block sizes. A block size of 1 fetches a
+ * sequence value for every insert, as the entity did before ids were pooled, larger blocks let Hibernate
+ * batch the inserts.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportInsertBenchmark {
+
+	private static final int ROWS = 10000;
+
+	@Param({ "1", "50", "500" })
+	public int blockSize;
+
+	private ConfigurableApplicationContext context;
+	private CustomerService customerService;
+	private MockMultipartFile file;
+
+	@Setup
+	public void setUp() {
+		context = BenchmarkContext.start("customer.id.block-size=" + blockSize);
+		customerService = context.getBean(CustomerService.class);
+		file = new MockMultipartFile("file", "customers.csv", "text/csv",
+				CustomerCsvData.csv(ROWS).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public Integer uploadCustomers() throws Exception {
+		return customerService.uploadCustomers(file);
+	}
+}
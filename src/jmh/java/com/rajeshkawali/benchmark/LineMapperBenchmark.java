@@ -0,0 +1,59 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.config.BatchConfig;
+import com.rajeshkawali.config.CustomerLineMapper;
+import com.rajeshkawali.entity.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.file.LineMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lines per second of the batch job's line mappers: {@code bean-wrapper} is {@code DelimitedLineTokenizer} plus
+ * {@code BeanWrapperFieldSetMapper}, {@code direct} is {@link CustomerLineMapper}. Add {@code -prof gc} to compare
+ * the allocation rate.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineMapperBenchmark {
+
+	@Param({ "10000" })
+	public int rows;
+
+	@Param({ "bean-wrapper", "direct" })
+	public String mapper;
+
+	private List<String> lines;
+	private LineMapper<Customer> lineMapper;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		lines = CustomerCsvData.lines(rows);
+		lineMapper = "direct".equals(mapper) ? new CustomerLineMapper() : BatchConfig.lineMapper();
+	}
+
+	@Benchmark
+	public Customer mapLine() throws Exception {
+		int row = next;
+		next = row + 1 == rows ? 0 : row + 1;
+		return lineMapper.mapLine(lines.get(row), row);
+	}
+}
@@ -0,0 +1,60 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.dto.CustomerCsv;
+import com.rajeshkawali.util.CustomerCsvReader;
+import com.rajeshkawali.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to parse a whole csv on the upload api and map every row to a customer entity, with the OpenCSV
+ * {@code HeaderColumnNameMappingStrategy} and with {@link CustomerCsvReader}.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenCsvBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int rows;
+
+	private String csv;
+
+	@Setup
+	public void setUp() {
+		csv = CustomerCsvData.csv(rows);
+	}
+
+	@Benchmark
+	public void parseCsv(Blackhole blackhole) {
+		for (CustomerCsv csvLine : Util.csvToBean(new StringReader(csv))) {
+			blackhole.consume(Util.csvToCustomer(csvLine));
+		}
+	}
+
+	@Benchmark
+	public void readCsvDirect(Blackhole blackhole) throws IOException {
+		for (CustomerCsv csvLine : new CustomerCsvReader(new StringReader(csv))) {
+			blackhole.consume(Util.csvToCustomer(csvLine));
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.config.DataSourceConfig;
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerRepository;
+import com.rajeshkawali.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the api: loading customer entities and copying them with {@link Util#entityToDto} against
+ * the constructor expression queries that project straight into {@link CustomerDTO}. Both run in read only
+ * transactions. Run with {@code -prof gc} to compare the allocation per operation.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionReadBenchmark {
+
+	private static final int LOAD_CHUNK = 1000;
+	private static final int PAGE_SIZE = 1000;
+
+	@Param({ "10000", "100000" })
+	public int tableSize;
+
+	private ConfigurableApplicationContext context;
+	private CustomerRepository customerRepository;
+	private TransactionTemplate readOnlyTransaction;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		context = BenchmarkContext.start("customer.import.writer.mode=jdbc-batch");
+		customerRepository = context.getBean(CustomerRepository.class);
+		ItemWriter<Customer> writer = context.getBean("customerWriter", ItemWriter.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(
+				context.getBean(DataSourceConfig.BULK_TRANSACTION_MANAGER, PlatformTransactionManager.class));
+		for (int row = 0; row < tableSize; row += LOAD_CHUNK) {
+			List<Customer> customers = CustomerCsvData.customers(row, Math.min(LOAD_CHUNK, tableSize - row));
+			transactionTemplate.executeWithoutResult(status -> {
+				try {
+					writer.write(new Chunk<>(customers));
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnlyTransaction.setReadOnly(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	private long randomAfterId() {
+		return ThreadLocalRandom.current().nextLong(Math.max(1, tableSize - PAGE_SIZE));
+	}
+
+	@Benchmark
+	public List<CustomerDTO> allEntities() {
+		return readOnlyTransaction.execute(status -> {
+			List<CustomerDTO> customers = new ArrayList<>(tableSize);
+			customerRepository.findAll().forEach(customer -> customers.add(Util.entityToDto(customer)));
+			return customers;
+		});
+	}
+
+	@Benchmark
+	public List<CustomerDTO> allProjected() {
+		return readOnlyTransaction.execute(status -> customerRepository.findAllDtos());
+	}
+
+	@Benchmark
+	public List<CustomerDTO> pageEntities() {
+		long afterId = randomAfterId();
+		return readOnlyTransaction.execute(status -> {
+			List<CustomerDTO> customers = new ArrayList<>(PAGE_SIZE);
+			customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(PAGE_SIZE))
+					.forEach(customer -> customers.add(Util.entityToDto(customer)));
+			return customers;
+		});
+	}
+
+	@Benchmark
+	public List<CustomerDTO> pageProjected() {
+		long afterId = randomAfterId();
+		return readOnlyTransaction.execute(
+				status -> customerRepository.findDtosByIdGreaterThan(afterId, PageRequest.ofSize(PAGE_SIZE)));
+	}
+}
@@ -0,0 +1,110 @@
+package com.rajeshkawali.benchmark;
+
+import com.rajeshkawali.config.DataSourceConfig;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Surname lookup latency against table size, on the indexed surname columns. The first name lookup has
+ * no index and shows the cost of a full table scan for comparison.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SurnameLookupBenchmark {
+
+	private static final int LOAD_CHUNK = 1000;
+
+	@Param({ "10000", "100000", "1000000" })
+	public int tableSize;
+
+	private ConfigurableApplicationContext context;
+	private CustomerRepository customerRepository;
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws Exception {
+		context = BenchmarkContext.start("customer.import.writer.mode=jdbc-batch");
+		customerRepository = context.getBean(CustomerRepository.class);
+		jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+		ItemWriter<Customer> writer = context.getBean("customerWriter", ItemWriter.class);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(
+				context.getBean(DataSourceConfig.BULK_TRANSACTION_MANAGER, PlatformTransactionManager.class));
+		for (int row = 0; row < tableSize; row += LOAD_CHUNK) {
+			List<Customer> customers = CustomerCsvData.customers(row, Math.min(LOAD_CHUNK, tableSize - row));
+			transactionTemplate.executeWithoutResult(status -> {
+				try {
+					writer.write(new Chunk<>(customers));
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	private static int randomRow() {
+		return ThreadLocalRandom.current().nextInt(CustomerCsvData.DISTINCT_NAMES);
+	}
+
+	@Benchmark
+	public Optional<Customer> exactSurname() {
+		return customerRepository.findFirstBySurnameOrderByIdAsc(CustomerCsvData.surname(randomRow()));
+	}
+
+	@Benchmark
+	public Page<Customer> caseInsensitiveSurnamePage() {
+		return customerRepository.findBySurnameNormalized(
+				Customer.normalizeSurname(CustomerCsvData.surname(randomRow())), PageRequest.of(0, 20, Sort.by("id")));
+	}
+
+	@Benchmark
+	public Page<Customer> surnamePrefixPage() {
+		String surname = Customer.normalizeSurname(CustomerCsvData.surname(randomRow()));
+		return customerRepository.findBySurnameNormalizedStartingWith(surname.substring(0, surname.length() - 1),
+				PageRequest.of(0, 20, Sort.by("id")));
+	}
+
+	@Benchmark
+	public List<Long> unindexedFirstName() {
+		return jdbcTemplate.queryForList("SELECT id FROM customer_inventory WHERE first_name = ? LIMIT 1",
+				Long.class, CustomerCsvData.firstName(randomRow()));
+	}
+}
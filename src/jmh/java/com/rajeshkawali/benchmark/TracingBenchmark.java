@@ -0,0 +1,121 @@
+package com.rajeshkawali.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.rajeshkawali.config.TracingAspect;
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.util.Util;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call logging cost of a customer lookup: the former hand written ENTER/EXIT logging against the
+ * {@link TracingAspect} proxy with its default sample rate. Events are formatted with the Spring Boot
+ * console pattern and written to a null stream, so the numbers leave out the console itself.
+ * With {@code level=DEBUG} both variants log, which is the level in application.properties.
+ *
+ * @author Rajesh_Kawali
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingBenchmark {
+
+	private static final String LOG_PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n";
+	private static final CustomerDTO CUSTOMER = Util.entityToDto(CustomerCsvData.customers(0, 1).get(0));
+
+	@Param({ "WARN", "INFO", "DEBUG" })
+	private String level;
+
+	private HandWrittenLookup handWrittenLookup;
+	private TracedLookup tracedLookup;
+	private long id;
+
+	@Setup
+	public void setUp() {
+		LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(loggerContext);
+		encoder.setPattern(LOG_PATTERN);
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(loggerContext);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+		ch.qos.logback.classic.Logger logger = loggerContext.getLogger(TracingBenchmark.class.getPackageName());
+		logger.detachAndStopAllAppenders();
+		logger.addAppender(appender);
+		logger.setAdditive(false);
+		logger.setLevel(Level.toLevel(level));
+
+		handWrittenLookup = new HandWrittenLookup();
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new TracedLookup());
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAspect(new TracingAspect(0.01));
+		tracedLookup = proxyFactory.getProxy();
+	}
+
+	@Benchmark
+	public CustomerDTO handWrittenLogging() {
+		return handWrittenLookup.customerById(++id);
+	}
+
+	@Benchmark
+	public CustomerDTO tracingAspect() {
+		return tracedLookup.customerById(++id);
+	}
+
+	private static CustomerDTO lookup(Long id) {
+		CUSTOMER.setId(id);
+		return CUSTOMER;
+	}
+
+	@Slf4j
+	public static class HandWrittenLookup {
+
+		public static final String CLASS_NAME = HandWrittenLookup.class.getName();
+
+		public CustomerDTO customerById(Long id) {
+			String _function = ".customerById";
+			log.info(CLASS_NAME + _function + "::ENTER");
+			CustomerDTO customerDTO = lookup(id);
+			log.debug(CLASS_NAME + _function + "::Response is: {}", customerDTO);
+			log.info(CLASS_NAME + _function + "::EXIT");
+			return customerDTO;
+		}
+	}
+
+	@Slf4j
+	@Service
+	public static class TracedLookup {
+
+		public CustomerDTO customerById(Long id) {
+			CustomerDTO customerDTO = lookup(id);
+			log.debug("customerById::Response is: {}", customerDTO);
+			return customerDTO;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completion policy sizing the chunks of a step so that writing and committing a chunk takes about
+ * {@code targetMillis}. After every chunk the time from the start of the write to the end of the commit is
+ * divided by the items written; the moving average of that time per item gives the next chunk size, between
+ * {@code minSize} and {@code maxSize}, at most halved or doubled at once.
+ * <p>
+ * The size is saved as {@value #CHUNK_SIZE_KEY} in the step execution context, so a restart goes on with
+ * it, and every change is counted in {@code customer.import.chunk.size.changes} with the size published as
+ * the {@code customer.import.chunk.size} gauge. One instance per step execution, partitions adapt on their own.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class AdaptiveChunkSizePolicy extends CompletionPolicySupport implements StepExecutionListener,
+		ChunkListener, ItemWriteListener<Customer> {
+
+	static final String CHUNK_SIZE_KEY = "chunk.size";
+	static final String CHUNK_SIZE_CHANGES_KEY = "chunk.size.changes";
+
+	private static final double SMOOTHING = 0.3;
+	private static final double MIN_CHANGE = 0.1;
+
+	private final int initialSize;
+	private final int minSize;
+	private final int maxSize;
+	private final long targetNanos;
+	private final CustomerStepMetricsListener metricsListener;
+	private final ThreadLocal<WriteTiming> writeTiming = ThreadLocal.withInitial(WriteTiming::new);
+
+	private volatile int chunkSize;
+	private double nanosPerItem;
+
+	public AdaptiveChunkSizePolicy(int initialSize, int minSize, int maxSize, long targetMillis,
+			CustomerStepMetricsListener metricsListener) {
+		this.initialSize = initialSize;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+		this.metricsListener = metricsListener;
+		this.chunkSize = clamp(initialSize);
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+		chunkSize = clamp(stepExecution.getExecutionContext().getInt(CHUNK_SIZE_KEY, initialSize));
+		metricsListener.chunkSize(stepExecution.getStepName(), chunkSize, false);
+	}
+
+	/**
+	 * Each chunk keeps the size it started with, changes apply to the next chunks.
+	 */
+	@Override
+	public RepeatContext start(RepeatContext parent) {
+		return new SizedContext(parent, chunkSize);
+	}
+
+	@Override
+	public boolean isComplete(RepeatContext context) {
+		int size = context instanceof SizedContext sizedContext ? sizedContext.size : chunkSize;
+		return context.getStartedCount() >= size;
+	}
+
+	@Override
+	public void beforeWrite(Chunk<? extends Customer> items) {
+		WriteTiming timing = writeTiming.get();
+		timing.start = System.nanoTime();
+		timing.items = items.size();
+	}
+
+	@Override
+	public void afterChunk(ChunkContext context) {
+		WriteTiming timing = writeTiming.get();
+		if (timing.items > 0) {
+			adapt(context.getStepContext().getStepExecution(), (System.nanoTime() - timing.start) / (double) timing.items);
+		}
+		timing.items = 0;
+	}
+
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		writeTiming.get().items = 0;
+	}
+
+	private synchronized void adapt(StepExecution stepExecution, double sample) {
+		nanosPerItem = nanosPerItem == 0 ? sample : nanosPerItem + SMOOTHING * (sample - nanosPerItem);
+		int current = chunkSize;
+		long target = Math.round(targetNanos / Math.max(nanosPerItem, 1));
+		int size = clamp((int) Math.max(current / 2, Math.min(target, current * 2L)));
+		if (Math.abs(size - current) <= current * MIN_CHANGE) {
+			return;
+		}
+		chunkSize = size;
+		stepExecution.getExecutionContext().putInt(CHUNK_SIZE_KEY, size);
+		stepExecution.getExecutionContext().putInt(CHUNK_SIZE_CHANGES_KEY,
+				stepExecution.getExecutionContext().getInt(CHUNK_SIZE_CHANGES_KEY, 0) + 1);
+		metricsListener.chunkSize(stepExecution.getStepName(), size, true);
+		log.debug("adapt::{} chunk size {} -> {}, {} us per item", stepExecution.getStepName(),
+				current, size, Math.round(nanosPerItem / 1000));
+	}
+
+	private int clamp(int size) {
+		return Math.max(minSize, Math.min(maxSize, size));
+	}
+
+	private static final class SizedContext extends RepeatContextSupport {
+
+		private final int size;
+
+		private SizedContext(RepeatContext parent, int size) {
+			super(parent);
+			this.size = size;
+		}
+	}
+
+	private static final class WriteTiming {
+		private long start;
+		private int items;
+	}
+}
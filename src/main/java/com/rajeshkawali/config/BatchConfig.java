@@ -1,51 +1,305 @@
 package com.rajeshkawali.config;
 
+import com.rajeshkawali.constant.CustomerConstants;
 import com.rajeshkawali.entity.Customer;
-import com.rajeshkawali.repository.CustomerRepository;
+import com.rajeshkawali.exception.CustomerValidationException;
+import com.rajeshkawali.repository.CustomerIdAllocator;
+import com.rajeshkawali.repository.CustomerImportHashRepository;
+import com.rajeshkawali.repository.CustomerJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.data.RepositoryItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.MultiResourceItemReader;
 import org.springframework.batch.item.file.LineMapper;
 import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.batch.BatchDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.batch.BatchProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+
 /**
+ * The import job, its job repository and writers run on the bulk connection pool of {@link DataSourceConfig},
+ * where the Spring Batch tables are created.
+ *
  * @author Rajesh_Kawali
  *
  */
 @Configuration
-@EnableBatchProcessing
+@EnableBatchProcessing(dataSourceRef = DataSourceConfig.BULK_DATA_SOURCE,
+		transactionManagerRef = DataSourceConfig.BULK_TRANSACTION_MANAGER, taskExecutorRef = "jobTaskExecutor")
+@EnableConfigurationProperties(BatchProperties.class)
 @RequiredArgsConstructor
 public class BatchConfig {
 
 	private final JobRepository jobRepository;
+	@Qualifier(DataSourceConfig.BULK_TRANSACTION_MANAGER)
 	private final PlatformTransactionManager platformTransactionManager;
-	private final CustomerRepository customerRepository;
+	@Qualifier(DataSourceConfig.BULK_ENTITY_MANAGER_FACTORY)
+	private final EntityManagerFactory bulkEntityManagerFactory;
+	private final CustomerJdbcRepository customerJdbcRepository;
+	private final CustomerIdAllocator customerIdAllocator;
+	private final CustomerImportHashRepository customerImportHashRepository;
+	@Qualifier(DataSourceConfig.BULK_DATA_SOURCE)
+	private final DataSource dataSource;
+	private final CacheManager cacheManager;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${customer.import.mode:simple}")
+	private String importMode;
+
+	@Value("${customer.import.partition.grid-size:4}")
+	private int gridSize;
+
+	@Value("${customer.import.partition.concurrency:4}")
+	private int partitionConcurrency;
+
+	@Value("${customer.import.reader:flat-file}")
+	private String readerMode;
+
+	@Value("${customer.import.line-mapper:direct}")
+	private String lineMapperMode;
+
+	@Value("${customer.import.writer.mode:jdbc-batch}")
+	private String writerMode;
+
+	@Value("${customer.import.writer.rows-per-statement:100}")
+	private int rowsPerStatement;
+
+	@Value("${customer.import.upsert.key:id}")
+	private String upsertKey;
+
+	@Value("${customer.import.delta.enabled:false}")
+	private boolean deltaImport;
+
+	@Value("${customer.import.chunk.size:1000}")
+	private int chunkSize;
+
+	@Value("${customer.import.chunk.adaptive:false}")
+	private boolean adaptiveChunkSize;
+
+	@Value("${customer.import.chunk.min-size:100}")
+	private int minChunkSize;
+
+	@Value("${customer.import.chunk.max-size:10000}")
+	private int maxChunkSize;
+
+	@Value("${customer.import.chunk.target-millis:500}")
+	private long chunkTargetMillis;
+
+	@Value("${customer.import.pipeline.batch-size:250}")
+	private int pipelineBatchSize;
+
+	@Value("${customer.import.pipeline.queue-capacity:8}")
+	private int pipelineQueueCapacity;
+
+	@Value("${customer.import.pipeline.process-concurrency:4}")
+	private int pipelineProcessConcurrency;
+
+	@Value("${customer.import.pipeline.write-concurrency:1}")
+	private int pipelineWriteConcurrency;
+
+	@Value("${customer.import.mobile.country-code:91}")
+	private long mobileCountryCode;
+
+	@Value("${customer.import.names.capitalize:false}")
+	private boolean capitalizeNames;
+
+	@Value("${customer.import.dedup.key:none}")
+	private String dedupKey;
+
+	@Value("${customer.import.dedup.expected-rows:1000000}")
+	private long dedupExpectedRows;
+
+	@Value("${customer.import.skip-limit:100}")
+	private int skipLimit;
+
+	@Value("${customer.import.retry-limit:3}")
+	private int retryLimit;
+
+	@Value("${customer.import.dead-letter-dir:target/dead-letter}")
+	private String deadLetterDir;
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreads;
+
+	@Value("${customer.import.task.concurrency-limit:10}")
+	private int taskConcurrencyLimit;
+
+	@Value("${customer.import.launcher.concurrency:4}")
+	private int launcherConcurrency;
+
+	@Value("${customer.import.launcher.queue-capacity:20}")
+	private int launcherQueueCapacity;
 
+	/**
+	 * Reader of the simple import step, reading the {@code inputFile} job parameter: a file, a directory or a glob.
+	 * A single file is read with the reader selected by {@code customer.import.reader}: {@code flat-file} (default)
+	 * for a {@link FlatFileItemReader} or {@code mapped} for a {@link MappedCustomerItemReader}. Several files are
+	 * read one after the other by a {@link MultiResourceItemReader}, gzip and zstd files are decompressed while read.
+	 * <p>
+	 * The step reads on several threads, so the reader is synchronized and saves no state: the chunks commit
+	 * out of order and no single position tells which lines were written. A restart reads the input again from
+	 * the start, the {@code partitioned} mode restarts the failed partitions only.
+	 */
 	@Bean
-	public FlatFileItemReader<Customer> customerReader() {
+	@StepScope
+	public ItemStreamReader<Customer> customerReader(
+			@Value("#{jobParameters['" + CustomerConstants.INPUT_FILE_PARAMETER + "']}") String inputFile) {
+		SynchronizedItemStreamReader<Customer> synchronizedReader = new SynchronizedItemStreamReader<>();
+		synchronizedReader.setDelegate(inputReader(inputFile, false));
+		return synchronizedReader;
+	}
+
+	/**
+	 * Reader and processor of the pipelined import step, reading the {@code inputFile} job parameter like
+	 * {@link #customerReader} on its read stage, normalizing the customers on its process stage and filtering
+	 * the duplicate and unchanged ones in read order. One instance per step, so the results it holds for the
+	 * step go with it.
+	 */
+	@Bean
+	@StepScope
+	public PipelinedItemReader<Customer, Customer> pipelinedReader(
+			@Value("#{jobParameters['" + CustomerConstants.INPUT_FILE_PARAMETER + "']}") String inputFile) {
+		CustomerProcessor processor = customerProcessor();
+		PipelinedItemReader<Customer, Customer> itemReader = new PipelinedItemReader<>(inputReader(inputFile, true),
+				processor::normalize, processor::filter, pipelineBatchSize, pipelineQueueCapacity,
+				pipelineReadTaskExecutor(), pipelineProcessTaskExecutor());
+		itemReader.setName("csv-pipelined-reader");
+		itemReader.setSaveState(pipelineWriteConcurrency == 1);
+		return itemReader;
+	}
+
+	/**
+	 * Reader of all the input files, not thread safe. {@code saveState} is false when the reader is shared by
+	 * several chunk threads.
+	 */
+	private ItemStreamReader<Customer> inputReader(String inputFile, boolean saveState) {
+		List<Path> files = CustomerInputFiles.resolve(inputFile);
+		if (files.isEmpty()) {
+			throw new IllegalStateException("No input files found for " + inputFile);
+		}
+		if (files.size() == 1) {
+			return fileReader(files.get(0), 0, -1, "csv", saveState);
+		}
+		MultiResourceItemReader<Customer> itemReader = new MultiResourceItemReader<>();
+		itemReader.setResources(files.stream().map(BatchConfig::inputResource).toArray(Resource[]::new));
+		itemReader.setDelegate(flatFileReader(null, 1, "csv-file-reader", saveState));
+		itemReader.setName("csv-multi-file-reader");
+		itemReader.setSaveState(saveState);
+		return itemReader;
+	}
+
+	/**
+	 * Reader of one partition. Every worker step gets its own instance, reading only the file or byte range
+	 * assigned by {@link CustomerFilePartitioner}, so the state saved for restart is per partition.
+	 */
+	@Bean
+	@StepScope
+	public ItemStreamReader<Customer> partitionReader(
+			@Value("#{stepExecutionContext['" + CustomerFilePartitioner.INPUT_FILE + "']}") String inputFile,
+			@Value("#{stepExecutionContext['" + CustomerFilePartitioner.START_OFFSET + "']}") Long startOffset,
+			@Value("#{stepExecutionContext['" + CustomerFilePartitioner.END_OFFSET + "']}") Long endOffset) {
+		return fileReader(Path.of(inputFile), startOffset, endOffset, "csv-partition", true);
+	}
+
+	/**
+	 * Reader of the bytes between {@code startOffset} and {@code endOffset} of one file, -1 meaning the whole
+	 * file including its header line. Compressed files are always read whole with a {@link FlatFileItemReader}.
+	 */
+	private ItemStreamReader<Customer> fileReader(Path file, long startOffset, long endOffset, String name,
+			boolean saveState) {
+		boolean wholeFile = endOffset < 0;
+		if (CompressedFileResource.isCompressed(file)) {
+			return flatFileReader(new CompressedFileResource(file), 1, name + "-reader", saveState);
+		}
+		if ("mapped".equalsIgnoreCase(readerMode)) {
+			MappedCustomerItemReader itemReader = new MappedCustomerItemReader(file, startOffset, endOffset, wholeFile);
+			itemReader.setName(name + "-mapped-reader");
+			itemReader.setSaveState(saveState);
+			return itemReader;
+		}
+		Resource resource = wholeFile
+				? new FileSystemResource(file)
+				: new FileRangeResource(file.toString(), startOffset, endOffset);
+		return flatFileReader(resource, wholeFile ? 1 : 0, name + "-reader", saveState);
+	}
+
+	private FlatFileItemReader<Customer> flatFileReader(Resource resource, int linesToSkip, String name,
+			boolean saveState) {
 		FlatFileItemReader<Customer> itemReader = new FlatFileItemReader<>();
-		itemReader.setResource(new FileSystemResource("src/main/resources/customers.csv"));
-		itemReader.setName("csv-reader");
-		itemReader.setLinesToSkip(1);
-		itemReader.setLineMapper(lineMapper());
+		if (resource != null) {
+			itemReader.setResource(resource);
+		}
+		itemReader.setName(name);
+		itemReader.setLinesToSkip(linesToSkip);
+		itemReader.setLineMapper(customerLineMapper());
+		itemReader.setSaveState(saveState);
 		return itemReader;
 	}
 
-	private LineMapper<Customer> lineMapper() {
+	private static Resource inputResource(Path file) {
+		return CompressedFileResource.isCompressed(file) ? new CompressedFileResource(file) : new FileSystemResource(file);
+	}
+
+	/**
+	 * Line mapper of the import readers, selected with {@code customer.import.line-mapper}:
+	 * {@code direct} (default) for {@link CustomerLineMapper} or {@code bean-wrapper} for {@link #lineMapper()}.
+	 */
+	private LineMapper<Customer> customerLineMapper() {
+		return "bean-wrapper".equalsIgnoreCase(lineMapperMode) ? lineMapper() : new CustomerLineMapper();
+	}
+
+	/**
+	 * Maps one csv line (id, firstName, surname, smoothiePreference, mobileNumber) to a {@link Customer}
+	 * through {@link BeanWrapperFieldSetMapper}.
+	 */
+	public static LineMapper<Customer> lineMapper() {
 
 		DefaultLineMapper<Customer> lineMapper = new DefaultLineMapper<>();
 
@@ -65,41 +319,340 @@ public class BatchConfig {
 
 	@Bean
 	public CustomerProcessor customerProcessor() {
-		return new CustomerProcessor();
+		return new CustomerProcessor(mobileCountryCode, capitalizeNames,
+				isDedupEnabled() ? customerDuplicateFilter() : null, deltaImport ? customerDeltaFilter() : null);
+	}
+
+	/**
+	 * Duplicate filter, enabled by setting {@code customer.import.dedup.key} to {@code id} or {@code mobileNumber}.
+	 * The off-heap key sets are sized for {@code customer.import.dedup.expected-rows} and grow beyond it.
+	 * Not created for the default {@code none}.
+	 */
+	@Bean
+	@ConditionalOnExpression("!'${customer.import.dedup.key:none}'.equalsIgnoreCase('none')")
+	public CustomerDuplicateFilter customerDuplicateFilter() {
+		return new CustomerDuplicateFilter(dedupKey, dedupExpectedRows);
+	}
+
+	private boolean isDedupEnabled() {
+		return !"none".equalsIgnoreCase(dedupKey);
+	}
+
+	/**
+	 * Delta import filter, enabled with {@code customer.import.delta.enabled}. Customers are keyed by
+	 * {@code customer.import.upsert.key}, the job must use the {@code upsert} writer so changed rows update
+	 * the stored ones.
+	 */
+	@Bean
+	public CustomerDeltaFilter customerDeltaFilter() {
+		return new CustomerDeltaFilter(customerImportHashRepository, CustomerJdbcRepository.keyProperties(upsertKey));
+	}
+
+	/**
+	 * Writer of the import steps, selected with {@code customer.import.writer.mode}:
+	 * {@code jdbc-batch} (default), {@code multi-row}, {@code repository}, which merges the entities through the
+	 * bulk entity manager factory like {@code CustomerRepository.save}, or {@code upsert}, which merges the
+	 * customers by {@code customer.import.upsert.key} with {@link CustomerJdbcRepository#upsertAll}.
+	 * The delta import needs the {@code upsert} writer, the others would fail on the changed rows already stored.
+	 */
+	@Bean
+	public ItemWriter<Customer> customerWriter() {
+		if (deltaImport && !"upsert".equalsIgnoreCase(writerMode)) {
+			throw new IllegalStateException("customer.import.delta.enabled needs customer.import.writer.mode=upsert, not "
+					+ writerMode);
+		}
+		if ("repository".equalsIgnoreCase(writerMode)) {
+			JpaItemWriter<Customer> writer = new JpaItemWriter<>();
+			writer.setEntityManagerFactory(bulkEntityManagerFactory);
+			return writer;
+		}
+		if ("upsert".equalsIgnoreCase(writerMode)) {
+			CustomerJdbcRepository bulkJdbcRepository = customerJdbcRepository.withJdbcTemplate(new JdbcTemplate(dataSource));
+			return chunk -> bulkJdbcRepository.upsertAll(chunk.getItems());
+		}
+		CustomerJdbcItemWriter.Mode mode = "multi-row".equalsIgnoreCase(writerMode)
+				? CustomerJdbcItemWriter.Mode.MULTI_ROW
+				: CustomerJdbcItemWriter.Mode.BATCH;
+		return new CustomerJdbcItemWriter(new JdbcTemplate(dataSource), customerIdAllocator, mode, rowsPerStatement);
+	}
+
+	/**
+	 * The csv ids are stored as they are, after the job the customer id sequence is moved past them so the
+	 * ids handed out next, by {@code CustomerService} and by the import writers, don't collide with them.
+	 */
+	@Bean
+	public JobExecutionListener customerIdSequenceListener() {
+		return new JobExecutionListener() {
+
+			@Override
+			public void afterJob(JobExecution jobExecution) {
+				customerIdAllocator.advancePastStoredIds();
+			}
+		};
+	}
+
+	/**
+	 * The {@code upsert} and {@code repository} writers update stored rows, the others only insert.
+	 */
+	@Bean
+	public CustomerCacheEvictionListener customerCacheEvictionListener() {
+		boolean upsert = "upsert".equalsIgnoreCase(writerMode);
+		boolean clearIdCache = upsert && !customerJdbcRepository.isUpsertKeyedById();
+		boolean updatesStoredRows = upsert || "repository".equalsIgnoreCase(writerMode);
+		return new CustomerCacheEvictionListener(cacheManager, clearIdCache, updatesStoredRows);
+	}
+
+	/**
+	 * Registered as {@link StepExecutionListener}, the step builders also register it for the chunk, item
+	 * and skip callbacks it implements.
+	 */
+	@Bean
+	public CustomerStepMetricsListener customerStepMetricsListener() {
+		return new CustomerStepMetricsListener(meterRegistry);
 	}
 
+	/**
+	 * One instance per step execution, so every step and partition gets its own dead-letter file.
+	 */
 	@Bean
-	public RepositoryItemWriter<Customer> customerWriter() {
-		RepositoryItemWriter<Customer> writer = new RepositoryItemWriter<>();
-		writer.setRepository(customerRepository);
-		writer.setMethodName("save");
-		return writer;
+	@StepScope
+	public CustomerDeadLetterListener customerDeadLetterListener() {
+		return new CustomerDeadLetterListener(Path.of(deadLetterDir));
 	}
 
 	@Bean
 	public Step step1() {
-		return new StepBuilder("csvImport", jobRepository)
-				.<Customer, Customer>chunk(1000, platformTransactionManager)
-				.reader(customerReader())
+		return faultTolerant(chunk(new StepBuilder("csvImport", jobRepository))
+				.reader(customerReader(null))
 				.processor(customerProcessor())
 				.writer(customerWriter())
-				.taskExecutor(taskExecutor())
+				.listener(customerCacheEvictionListener())
+				.listener((StepExecutionListener) customerStepMetricsListener())
+				.taskExecutor(taskExecutor()))
+				.build();
+	}
+
+	/**
+	 * Import step of the {@code pipelined} mode: the csv is read and processed by {@link #pipelinedReader} while
+	 * the chunk threads write, {@code customer.import.pipeline.write-concurrency} of them. With one write thread
+	 * the step keeps its chunk order and restarts where the last committed chunk ended.
+	 */
+	@Bean
+	public Step pipelinedStep() {
+		PipelinedItemReader<Customer, Customer> pipelinedReader = pipelinedReader(null);
+		ItemProcessor<Customer, Customer> pipelinedProcessor = pipelinedReader::process;
+		SimpleStepBuilder<Customer, Customer> builder = chunk(new StepBuilder("csvImportPipelined", jobRepository))
+				.reader(pipelinedReader)
+				.processor(pipelinedProcessor)
+				.writer(customerWriter())
+				.listener(customerCacheEvictionListener())
+				.listener((StepExecutionListener) customerStepMetricsListener());
+		if (pipelineWriteConcurrency > 1) {
+			builder = builder.taskExecutor(pipelineWriteTaskExecutor());
+		}
+		return faultTolerant(builder).build();
+	}
+
+	/**
+	 * Chunks of {@code customer.import.chunk.size} items, or sized by the {@link #adaptiveChunkSizePolicy} when
+	 * {@code customer.import.chunk.adaptive} is set.
+	 */
+	private SimpleStepBuilder<Customer, Customer> chunk(StepBuilder stepBuilder) {
+		if (adaptiveChunkSize) {
+			return stepBuilder.<Customer, Customer>chunk(adaptiveChunkSizePolicy(), platformTransactionManager)
+					.listener((StepExecutionListener) adaptiveChunkSizePolicy());
+		}
+		return stepBuilder.<Customer, Customer>chunk(chunkSize, platformTransactionManager);
+	}
+
+	/**
+	 * One instance per step execution, starting at {@code customer.import.chunk.size} and keeping the time to
+	 * write and commit a chunk near {@code customer.import.chunk.target-millis}.
+	 */
+	@Bean
+	@StepScope
+	public AdaptiveChunkSizePolicy adaptiveChunkSizePolicy() {
+		return new AdaptiveChunkSizePolicy(chunkSize, minChunkSize, maxChunkSize, chunkTargetMillis,
+				customerStepMetricsListener());
+	}
+
+	/**
+	 * Skips unparseable lines, invalid customers and rows rejected by the database up to
+	 * {@code customer.import.skip-limit}, writing them to the dead-letter file. Transient database errors
+	 * are retried {@code customer.import.retry-limit} times with an exponential back off.
+	 * <p>
+	 * Invalid customers are rejected by {@link CustomerProcessor} without rolling back the chunk, only a
+	 * failed write makes Spring Batch write the chunk again item by item to find the bad row. The processed
+	 * items are kept for that, the processor is not called twice for a row, or the duplicate filter would
+	 * drop it the second time.
+	 */
+	private FaultTolerantStepBuilder<Customer, Customer> faultTolerant(SimpleStepBuilder<Customer, Customer> stepBuilder) {
+		SimpleStepBuilder<Customer, Customer> builder = stepBuilder.listener((StepExecutionListener) customerDeadLetterListener());
+		if (deltaImport) {
+			builder = builder.listener((ItemWriteListener<Customer>) customerDeltaFilter());
+		}
+		return builder
+				.faultTolerant()
+				.skipLimit(skipLimit)
+				.skip(FlatFileParseException.class)
+				.skip(CustomerValidationException.class)
+				.skip(DataIntegrityViolationException.class)
+				.noRollback(CustomerValidationException.class)
+				.retryLimit(retryLimit)
+				.retry(TransientDataAccessException.class)
+				.retry(RecoverableDataAccessException.class)
+				.backOffPolicy(new ExponentialBackOffPolicy())
+				.processorNonTransactional()
+				.listener((SkipListener<Customer, Customer>) customerDeadLetterListener())
+				.listener((SkipListener<Customer, Customer>) customerStepMetricsListener())
+				.listener((RetryListener) customerStepMetricsListener());
+	}
+
+	@Bean
+	@StepScope
+	public CustomerFilePartitioner customerFilePartitioner(
+			@Value("#{jobParameters['" + CustomerConstants.INPUT_FILE_PARAMETER + "']}") String inputFile) {
+		return new CustomerFilePartitioner(CustomerInputFiles.resolve(inputFile));
+	}
+
+	@Bean
+	public Step partitionWorkerStep() {
+		return faultTolerant(chunk(new StepBuilder("csvImportPartition", jobRepository))
+				.reader(partitionReader(null, null, null))
+				.processor(customerProcessor())
+				.writer(customerWriter())
+				.listener(customerCacheEvictionListener())
+				.listener((StepExecutionListener) customerStepMetricsListener()))
+				.build();
+	}
+
+	/**
+	 * Manager step of the partitioned import: each byte range of the csv, or each file of a directory or glob,
+	 * runs as its own worker step execution, so files are read in parallel and a failed partition is restarted on its own.
+	 */
+	@Bean
+	public Step partitionedStep() {
+		return new StepBuilder("csvImportPartitioned", jobRepository)
+				.partitioner(partitionWorkerStep().getName(), customerFilePartitioner(null))
+				.step(partitionWorkerStep())
+				.gridSize(gridSize)
+				.taskExecutor(partitionTaskExecutor())
 				.build();
 	}
 
 	@Bean
 	public Job job(JobRepository jobRepository) {
-		return new JobBuilder("customers-import", jobRepository)
-				.start(step1())
+		Step importStep = switch (importMode.toLowerCase()) {
+		case "partitioned" -> partitionedStep();
+		case "pipelined" -> pipelinedStep();
+		default -> step1();
+		};
+		JobBuilder jobBuilder = new JobBuilder("customers-import", jobRepository)
+				.listener(customerIdSequenceListener());
+		if (isDedupEnabled()) {
+			jobBuilder.listener(customerDuplicateFilter());
+		}
+		if (deltaImport) {
+			jobBuilder.listener(customerDeltaFilter());
+		}
+		return jobBuilder
+				.start(importStep)
 				//.next(step2()) // If you have more step's then configure in next method.
 				//.next(step3()) // If you have more step's then configure in next method.
 				.build();
 	}
 	
+	/**
+	 * Executor of the multi-threaded import step. Uses virtual threads when
+	 * {@code spring.threads.virtual.enabled} is set, the concurrency limit protects the connection pool.
+	 */
 	@Bean
 	public TaskExecutor taskExecutor() {
 		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
-		taskExecutor.setConcurrencyLimit(10);
+		taskExecutor.setVirtualThreads(virtualThreads);
+		taskExecutor.setConcurrencyLimit(taskConcurrencyLimit);
+		return taskExecutor;
+	}
+
+	/**
+	 * Executor of the read stage of the pipelined step, one thread per running step.
+	 */
+	@Bean
+	public TaskExecutor pipelineReadTaskExecutor() {
+		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("csv-pipeline-read-");
+		taskExecutor.setVirtualThreads(virtualThreads);
+		return taskExecutor;
+	}
+
+	/**
+	 * Executor of the process stage of the pipelined step, shared by the running steps.
+	 */
+	@Bean
+	public TaskExecutor pipelineProcessTaskExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(pipelineProcessConcurrency);
+		taskExecutor.setMaxPoolSize(pipelineProcessConcurrency);
+		taskExecutor.setThreadNamePrefix("csv-pipeline-process-");
+		return taskExecutor;
+	}
+
+	@Bean
+	public TaskExecutor pipelineWriteTaskExecutor() {
+		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("csv-pipeline-write-");
+		taskExecutor.setVirtualThreads(virtualThreads);
+		taskExecutor.setConcurrencyLimit(pipelineWriteConcurrency);
+		return taskExecutor;
+	}
+
+	/**
+	 * Creates the Spring Batch tables on the bulk pool as set by {@code spring.batch.jdbc.initialize-schema}.
+	 * {@link EnableBatchProcessing} turns Boot's batch auto-configuration off, and its schema initializer with it.
+	 * Static, as the job repository this configuration is built with waits for the schema.
+	 */
+	@Bean
+	public static BatchDataSourceScriptDatabaseInitializer batchDataSourceInitializer(
+			@Qualifier(DataSourceConfig.BULK_DATA_SOURCE) DataSource dataSource, BatchProperties batchProperties) {
+		return new BatchDataSourceScriptDatabaseInitializer(dataSource, batchProperties.getJdbc());
+	}
+
+	/**
+	 * Job launcher used by the import api, returns as soon as the execution is created. Imports run on a
+	 * bounded pool, launches beyond the queue capacity are rejected and the execution is marked as failed.
+	 */
+	@Bean
+	public TaskExecutorJobLauncher asyncJobLauncher() {
+		TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+		jobLauncher.setJobRepository(jobRepository);
+		jobLauncher.setTaskExecutor(jobLauncherTaskExecutor());
+		return jobLauncher;
+	}
+
+	/**
+	 * Executor of the default job launcher, runs the job on the calling thread so that a launch with
+	 * {@code customer.import.async=false} returns the finished execution. Without it the launcher would take
+	 * the {@code taskExecutor} bean of the import step.
+	 */
+	@Bean
+	public TaskExecutor jobTaskExecutor() {
+		return new SyncTaskExecutor();
+	}
+
+	@Bean
+	public TaskExecutor jobLauncherTaskExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(launcherConcurrency);
+		taskExecutor.setMaxPoolSize(launcherConcurrency);
+		taskExecutor.setQueueCapacity(launcherQueueCapacity);
+		taskExecutor.setThreadNamePrefix("customer-import-");
+		return taskExecutor;
+	}
+
+	@Bean
+	public TaskExecutor partitionTaskExecutor() {
+		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+		taskExecutor.setCorePoolSize(partitionConcurrency);
+		taskExecutor.setMaxPoolSize(partitionConcurrency);
+		taskExecutor.setThreadNamePrefix("csv-partition-");
 		return taskExecutor;
 	}
 	
@@ -0,0 +1,33 @@
+package com.rajeshkawali.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the customer lookup caches, sized and expired through {@code spring.cache.caffeine.spec}.
+ * <p>
+ * The caching annotations go through a {@link TransactionAwareCacheManagerProxy} over the auto-configured
+ * cache manager, so a {@code @CacheEvict} on a transactional method evicts once the transaction committed
+ * instead of before, when a lookup could still cache the old row.
+ *
+ * @author Rajesh_Kawali
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+	private final ObjectProvider<CacheManager> cacheManager;
+
+	public CacheConfig(ObjectProvider<CacheManager> cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	@Override
+	public CacheManager cacheManager() {
+		return new TransactionAwareCacheManagerProxy(cacheManager.getObject());
+	}
+}
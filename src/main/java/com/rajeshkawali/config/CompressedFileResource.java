@@ -0,0 +1,49 @@
+package com.rajeshkawali.config;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * File resource that decompresses gzip ({@code .gz}) and zstd ({@code .zst}, {@code .zstd}) files while
+ * they are read, without unpacking them to disk first.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CompressedFileResource extends FileSystemResource {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	public CompressedFileResource(Path path) {
+		super(path);
+	}
+
+	public static boolean isCompressed(Path path) {
+		String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+		return fileName.endsWith(".gz") || fileName.endsWith(".zst") || fileName.endsWith(".zstd");
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		InputStream in = new BufferedInputStream(super.getInputStream(), BUFFER_SIZE);
+		String fileName = getFilename() == null ? "" : getFilename().toLowerCase(Locale.ROOT);
+		try {
+			if (fileName.endsWith(".gz")) {
+				return new GZIPInputStream(in, BUFFER_SIZE);
+			}
+			if (fileName.endsWith(".zst") || fileName.endsWith(".zstd")) {
+				return new ZstdInputStream(in);
+			}
+			return in;
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+}
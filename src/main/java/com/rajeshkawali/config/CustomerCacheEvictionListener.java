@@ -0,0 +1,84 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.entity.Customer;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evicts the cached lookups of every customer written by the import job. When the written ids are not the
+ * ids of the stored rows, as with an upsert on a natural key, the whole id cache is cleared after each chunk.
+ * When the writer updates stored rows, a row can change its surname and stay cached under the old one, so the
+ * whole surname cache is cleared after each chunk, like {@code CustomerService.updateCustomer} does.
+ * <p>
+ * The entries are evicted once the chunk transaction has committed, a lookup made between the write and the
+ * commit would otherwise cache the old row again. Without a transaction they are evicted right away.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerCacheEvictionListener implements ItemWriteListener<Customer> {
+
+	private final Cache customerByIdCache;
+	private final Cache customerBySurnameCache;
+	private final boolean clearIdCache;
+	private final boolean clearSurnameCache;
+
+	/**
+	 * @param clearIdCache whether the written ids may differ from the ids of the stored rows
+	 * @param clearSurnameCache whether the writer updates stored rows rather than only inserting new ones
+	 */
+	public CustomerCacheEvictionListener(CacheManager cacheManager, boolean clearIdCache, boolean clearSurnameCache) {
+		this.customerByIdCache = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_ID_CACHE);
+		this.customerBySurnameCache = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_SURNAME_CACHE);
+		this.clearIdCache = clearIdCache;
+		this.clearSurnameCache = clearSurnameCache;
+	}
+
+	@Override
+	public void afterWrite(Chunk<? extends Customer> items) {
+		List<Long> ids = new ArrayList<>(items.size());
+		List<String> surnames = new ArrayList<>(items.size());
+		for (Customer customer : items) {
+			if (!clearIdCache && customer.getId() != null) {
+				ids.add(customer.getId());
+			}
+			if (!clearSurnameCache && customer.getSurname() != null) {
+				surnames.add(customer.getSurname());
+			}
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(ids, surnames);
+				}
+			});
+		} else {
+			evict(ids, surnames);
+		}
+	}
+
+	private void evict(List<Long> ids, List<String> surnames) {
+		if (customerByIdCache != null) {
+			if (clearIdCache) {
+				customerByIdCache.clear();
+			} else {
+				ids.forEach(customerByIdCache::evict);
+			}
+		}
+		if (customerBySurnameCache != null) {
+			if (clearSurnameCache) {
+				customerBySurnameCache.clear();
+			} else {
+				surnames.forEach(customerBySurnameCache::evict);
+			}
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.rajeshkawali.config;
+
+import com.opencsv.CSVWriter;
+import com.rajeshkawali.entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Writes the rows skipped by a step execution to a dead-letter csv
+ * {@code <dead-letter dir>/<job execution id>-<step name>.csv} with the columns
+ * lineNumber, phase (read, process or write), reason and input. The file is only created once a row is
+ * skipped, its path is saved in the step execution context as {@value #DEAD_LETTER_FILE}.
+ * <p>
+ * Line numbers of a byte range partition count from the start of the range.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class CustomerDeadLetterListener implements SkipListener<Customer, Customer>, StepExecutionListener {
+
+	public static final String DEAD_LETTER_FILE = "deadLetterFile";
+
+	private static final String[] HEADER = { "lineNumber", "phase", "reason", "input" };
+
+	private final Path directory;
+
+	private Path file;
+	private CSVWriter writer;
+	private int rejectedCount;
+
+	public CustomerDeadLetterListener(Path directory) {
+		this.directory = directory;
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+		file = directory.resolve(stepExecution.getJobExecutionId() + "-"
+				+ stepExecution.getStepName().replace(':', '-') + ".csv");
+	}
+
+	@Override
+	public synchronized ExitStatus afterStep(StepExecution stepExecution) {
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				log.error("afterStep::Unable to close {}", file, e);
+			}
+			writer = null;
+			stepExecution.getExecutionContext().putString(DEAD_LETTER_FILE, file.toString());
+			log.warn("afterStep::{} rejected rows written to {}", rejectedCount, file);
+		}
+		return null;
+	}
+
+	@Override
+	public void onSkipInRead(Throwable t) {
+		if (t instanceof FlatFileParseException parseException) {
+			write(parseException.getLineNumber(), "read", t, parseException.getInput());
+		} else {
+			write(null, "read", t, null);
+		}
+	}
+
+	@Override
+	public void onSkipInProcess(Customer item, Throwable t) {
+		write(item.getLineNumber(), "process", t, toCsv(item));
+	}
+
+	@Override
+	public void onSkipInWrite(Customer item, Throwable t) {
+		write(item.getLineNumber(), "write", t, toCsv(item));
+	}
+
+	private synchronized void write(Integer lineNumber, String phase, Throwable t, String input) {
+		try {
+			if (writer == null) {
+				Files.createDirectories(directory);
+				writer = new CSVWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+				writer.writeNext(HEADER, false);
+			}
+			Throwable cause = NestedExceptionUtils.getMostSpecificCause(t);
+			writer.writeNext(new String[] {
+					lineNumber == null ? "" : lineNumber.toString(),
+					phase,
+					cause.getClass().getSimpleName() + ": " + cause.getMessage(),
+					input == null ? "" : input });
+			writer.flush();
+			rejectedCount++;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to write dead-letter file " + file, e);
+		}
+	}
+
+	private static String toCsv(Customer customer) {
+		return String.join(",",
+				Objects.toString(customer.getId(), ""),
+				Objects.toString(customer.getFirstName(), ""),
+				Objects.toString(customer.getSurname(), ""),
+				Objects.toString(customer.getSmoothiePreference(), ""),
+				Objects.toString(customer.getMobileNumber(), ""));
+	}
+}
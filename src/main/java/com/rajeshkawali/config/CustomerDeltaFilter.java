@@ -0,0 +1,84 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerImportHashRepository;
+import com.rajeshkawali.util.OffHeapLongLongMap;
+import com.rajeshkawali.util.Util;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.item.Chunk;
+
+import java.util.List;
+
+/**
+ * Delta import: tells {@link CustomerProcessor} which customers are unchanged since the last import, by
+ * comparing {@link Util#contentHash} with the hash stored for the customer key in the
+ * {@link CustomerImportHashRepository} side table.
+ * <p>
+ * The stored hashes are loaded off-heap when the job starts and stay the same while it runs, so a chunk
+ * that is rolled back and written again is never filtered. The hashes of the written customers are stored
+ * after each write, in the chunk transaction. Imports running at the same time share the loaded hashes.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class CustomerDeltaFilter implements JobExecutionListener, ItemWriteListener<Customer> {
+
+	private final CustomerImportHashRepository customerImportHashRepository;
+	private final List<String> keyProperties;
+
+	private volatile OffHeapLongLongMap previousHashes;
+	private int runningJobs;
+
+	public CustomerDeltaFilter(CustomerImportHashRepository customerImportHashRepository, List<String> keyProperties) {
+		this.customerImportHashRepository = customerImportHashRepository;
+		this.keyProperties = keyProperties;
+	}
+
+	@Override
+	public synchronized void beforeJob(JobExecution jobExecution) {
+		if (runningJobs++ == 0) {
+			OffHeapLongLongMap hashes = customerImportHashRepository.loadAll();
+			log.debug("beforeJob::Loaded {} customer hashes, {} bytes off-heap", hashes.size(),
+					hashes.memoryBytes());
+			previousHashes = hashes;
+		}
+	}
+
+	@Override
+	public synchronized void afterJob(JobExecution jobExecution) {
+		if (--runningJobs == 0) {
+			previousHashes = null;
+		}
+	}
+
+	/**
+	 * Whether the customer was imported before with the same content.
+	 */
+	public boolean isUnchanged(Customer customer) {
+		OffHeapLongLongMap hashes = previousHashes;
+		Long key = Util.customerKey(customer, keyProperties);
+		if (hashes == null || key == null) {
+			return false;
+		}
+		long hash = Util.contentHash(customer);
+		return hashes.get(key, ~hash) == hash;
+	}
+
+	@Override
+	public void afterWrite(Chunk<? extends Customer> items) {
+		long[] keys = new long[items.size()];
+		long[] hashes = new long[items.size()];
+		int size = 0;
+		for (Customer customer : items) {
+			Long key = Util.customerKey(customer, keyProperties);
+			if (key != null) {
+				keys[size] = key;
+				hashes[size++] = Util.contentHash(customer);
+			}
+		}
+		customerImportHashRepository.saveAll(keys, hashes, size);
+	}
+}
@@ -0,0 +1,63 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.util.LongDuplicateFilter;
+import com.rajeshkawali.util.Util;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells {@link CustomerProcessor} which customers repeat the {@code id} or {@code mobileNumber} of an
+ * earlier row of the same job execution. Each running job gets its own {@link LongDuplicateFilter}, shared
+ * by the threads and partitions of the job and dropped when the job ends, so concurrent imports don't
+ * filter each other's rows.
+ * <p>
+ * A restarted job starts with an empty filter, rows written before the restart are not remembered.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class CustomerDuplicateFilter implements JobExecutionListener {
+
+	private final String keyProperty;
+	private final long expectedRows;
+	private final Map<Long, LongDuplicateFilter> jobFilters = new ConcurrentHashMap<>();
+
+	public CustomerDuplicateFilter(String keyProperty, long expectedRows) {
+		this.keyProperty = keyProperty;
+		this.expectedRows = expectedRows;
+	}
+
+	@Override
+	public void beforeJob(JobExecution jobExecution) {
+		jobFilters.put(jobExecution.getId(), new LongDuplicateFilter(expectedRows));
+	}
+
+	@Override
+	public void afterJob(JobExecution jobExecution) {
+		LongDuplicateFilter filter = jobFilters.remove(jobExecution.getId());
+		if (filter != null) {
+			log.debug("afterJob::Job {} saw {} distinct customer keys, {} bytes off-heap",
+					jobExecution.getId(), filter.size(), filter.memoryBytes());
+		}
+	}
+
+	/**
+	 * Whether an earlier row of the running job had the same key. Remembers the key of the customer.
+	 */
+	public boolean isDuplicate(Customer customer) {
+		StepContext stepContext = StepSynchronizationManager.getContext();
+		Long key = Util.duplicateKey(customer.getId(), customer.getMobileNumber(), keyProperty);
+		if (stepContext == null || key == null) {
+			return false;
+		}
+		LongDuplicateFilter filter = jobFilters.get(stepContext.getStepExecution().getJobExecutionId());
+		return filter != null && filter.isDuplicate(key);
+	}
+}
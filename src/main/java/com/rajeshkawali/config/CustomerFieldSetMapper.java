@@ -0,0 +1,43 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import org.springframework.batch.item.file.mapping.FieldSetMapper;
+import org.springframework.batch.item.file.transform.FieldSet;
+
+/**
+ * Maps a tokenized customer line by column index and plain setters, instead of resolving every
+ * property through a {@code BeanWrapper} as {@code BeanWrapperFieldSetMapper} does.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerFieldSetMapper implements FieldSetMapper<Customer> {
+
+	public static final String[] COLUMN_NAMES = { "id", "firstName", "surname", "smoothiePreference", "mobileNumber" };
+
+	@Override
+	public Customer mapFieldSet(FieldSet fieldSet) {
+		Customer customer = new Customer();
+		int fieldCount = fieldSet.getFieldCount();
+		if (fieldCount > 0) {
+			customer.setId(readLong(fieldSet, 0));
+		}
+		if (fieldCount > 1) {
+			customer.setFirstName(fieldSet.readRawString(1));
+		}
+		if (fieldCount > 2) {
+			customer.setSurname(fieldSet.readRawString(2));
+		}
+		if (fieldCount > 3) {
+			customer.setSmoothiePreference(fieldSet.readRawString(3));
+		}
+		if (fieldCount > 4) {
+			customer.setMobileNumber(readLong(fieldSet, 4));
+		}
+		return customer;
+	}
+
+	private static Long readLong(FieldSet fieldSet, int index) {
+		String value = fieldSet.readRawString(index);
+		return value == null ? null : CustomerLineMapper.parseLong(value, 0, value.length(), COLUMN_NAMES[index]);
+	}
+}
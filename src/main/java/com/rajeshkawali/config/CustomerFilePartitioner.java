@@ -0,0 +1,106 @@
+package com.rajeshkawali.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the customer csv into line aligned byte ranges, one range per worker step.
+ * The header line is never part of a range, so workers don't have to skip lines.
+ * <p>
+ * When the input is several files (a directory or a glob) or a compressed file, which can't be split by
+ * offset, every file becomes one partition with {@code endOffset} -1, read whole including its header.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class CustomerFilePartitioner implements Partitioner {
+
+	public static final String INPUT_FILE = "inputFile";
+	public static final String START_OFFSET = "startOffset";
+	public static final String END_OFFSET = "endOffset";
+	public static final String PARTITION_PREFIX = "partition";
+
+	private static final int SCAN_BUFFER_SIZE = 8192;
+
+	private final List<Path> files;
+
+	public CustomerFilePartitioner(List<Path> files) {
+		this.files = files;
+	}
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		if (files.size() == 1 && !CompressedFileResource.isCompressed(files.get(0))) {
+			return partition(new FileSystemResource(files.get(0)), gridSize);
+		}
+		Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+		for (int index = 0; index < files.size(); index++) {
+			ExecutionContext context = new ExecutionContext();
+			context.putString(INPUT_FILE, files.get(index).toString());
+			context.putLong(START_OFFSET, 0);
+			context.putLong(END_OFFSET, -1);
+			partitions.put(PARTITION_PREFIX + index, context);
+		}
+		log.debug("partition::Created {} file partitions", partitions.size());
+		return partitions;
+	}
+
+	private Map<String, ExecutionContext> partition(Resource resource, int gridSize) {
+		Map<String, ExecutionContext> partitions = new LinkedHashMap<>();
+		try (RandomAccessFile file = new RandomAccessFile(resource.getFile(), "r")) {
+			long length = file.length();
+			long dataStart = nextLineStart(file, 0, length);
+			long rangeSize = Math.max(1, (length - dataStart) / Math.max(1, gridSize));
+			long start = dataStart;
+			int index = 0;
+			while (start < length) {
+				long end = index == gridSize - 1 ? length : nextLineStart(file, start + rangeSize, length);
+				ExecutionContext context = new ExecutionContext();
+				context.putString(INPUT_FILE, resource.getFile().getPath());
+				context.putLong(START_OFFSET, start);
+				context.putLong(END_OFFSET, end);
+				partitions.put(PARTITION_PREFIX + index, context);
+				start = end;
+				index++;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to partition " + resource.getDescription(), e);
+		}
+		log.debug("partition::Created {} partitions for {}", partitions.size(), resource.getDescription());
+		return partitions;
+	}
+
+	/**
+	 * Returns the offset of the first byte after the next line break at or after {@code from},
+	 * or {@code length} when there is no further line break.
+	 */
+	private long nextLineStart(RandomAccessFile file, long from, long length) throws IOException {
+		if (from >= length) {
+			return length;
+		}
+		byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+		long position = from;
+		file.seek(position);
+		int read;
+		while ((read = file.read(buffer)) > 0) {
+			for (int i = 0; i < read; i++) {
+				if (buffer[i] == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return length;
+	}
+}
@@ -0,0 +1,88 @@
+package com.rajeshkawali.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the {@code inputFile} job parameter of the import job: a single file, a directory (all its
+ * files) or a glob on the file name such as {@code /data/drops/customers-*.csv.gz}. The import api only
+ * accepts locations inside the import base directory, checked by {@link #resolveWithin}.
+ *
+ * @author Rajesh_Kawali
+ */
+public final class CustomerInputFiles {
+
+	private CustomerInputFiles() {
+	}
+
+	public static List<Path> resolve(String location) {
+		Path path = Path.of(location);
+		String fileName = path.getFileName() == null ? "" : path.getFileName().toString();
+		try {
+			if (Files.isDirectory(path)) {
+				return list(path, null);
+			}
+			if (isGlob(fileName)) {
+				Path directory = path.getParent() == null ? Path.of(".") : path.getParent();
+				return list(directory, FileSystems.getDefault().getPathMatcher("glob:" + fileName));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to list input files of " + location, e);
+		}
+		return List.of(path);
+	}
+
+	/**
+	 * The location given to the import api resolved against the import base directory. The location is
+	 * normalized first, a location escaping the base directory, with {@code ..}, as an absolute path elsewhere
+	 * or through a symbolic link, is rejected. For a glob the directory it lists is checked.
+	 *
+	 * @throws IllegalArgumentException for an invalid location or one outside the base directory
+	 */
+	public static Path resolveWithin(Path baseDirectory, String location) {
+		Path base = baseDirectory.toAbsolutePath().normalize();
+		Path path;
+		try {
+			path = base.resolve(location).normalize();
+		} catch (InvalidPathException e) {
+			throw new IllegalArgumentException("Invalid input location: '" + location + "'", e);
+		}
+		Path listed = path.getFileName() != null && isGlob(path.getFileName().toString()) ? path.getParent() : path;
+		if (listed == null || !listed.startsWith(base) || !isRealPathWithin(listed, base)) {
+			throw new IllegalArgumentException("Input location is outside the import directory: '" + location + "'");
+		}
+		return path;
+	}
+
+	private static boolean isRealPathWithin(Path path, Path base) {
+		if (!Files.exists(path)) {
+			return true;
+		}
+		try {
+			return path.toRealPath().startsWith(base.toRealPath());
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static List<Path> list(Path directory, PathMatcher matcher) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(Files::isRegularFile)
+					.filter(file -> matcher == null || matcher.matches(file.getFileName()))
+					.sorted()
+					.toList();
+		}
+	}
+
+	private static boolean isGlob(String fileName) {
+		return fileName.indexOf('*') >= 0 || fileName.indexOf('?') >= 0 || fileName.indexOf('[') >= 0
+				|| fileName.indexOf('{') >= 0;
+	}
+}
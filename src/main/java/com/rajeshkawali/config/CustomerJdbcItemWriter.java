@@ -0,0 +1,112 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerIdAllocator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes customers straight into the CustomerInventory table with plain JDBC, bypassing the
+ * per item merge of {@link org.springframework.batch.item.data.RepositoryItemWriter}.
+ * <p>
+ * In {@link Mode#BATCH} mode every chunk is sent as one JDBC batch of single row inserts, in
+ * {@link Mode#MULTI_ROW} mode rows are grouped into {@code INSERT ... VALUES (...),(...)} statements
+ * which are themselves batched. Customers without an id get one from the {@link CustomerIdAllocator}.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class CustomerJdbcItemWriter implements ItemWriter<Customer> {
+
+	public enum Mode {
+		BATCH, MULTI_ROW
+	}
+
+	private static final String INSERT_PREFIX =
+			"INSERT INTO customer_inventory (id, first_name, surname, surname_normalized, smoothie_preference, mobile_number) VALUES ";
+	private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+	private static final int COLUMN_COUNT = 6;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CustomerIdAllocator idAllocator;
+	private final Mode mode;
+	private final int rowsPerStatement;
+	private final String singleRowSql;
+	private final String multiRowSql;
+
+	public CustomerJdbcItemWriter(JdbcTemplate jdbcTemplate, CustomerIdAllocator idAllocator, Mode mode,
+			int rowsPerStatement) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.idAllocator = idAllocator;
+		this.mode = mode;
+		this.rowsPerStatement = Math.max(1, rowsPerStatement);
+		this.singleRowSql = insertSql(1);
+		this.multiRowSql = insertSql(this.rowsPerStatement);
+	}
+
+	@Override
+	public void write(Chunk<? extends Customer> chunk) {
+		List<? extends Customer> customers = chunk.getItems();
+		if (customers.isEmpty()) {
+			return;
+		}
+		idAllocator.assignIds(customers);
+		if (mode == Mode.MULTI_ROW) {
+			writeMultiRow(customers);
+		} else {
+			jdbcTemplate.batchUpdate(singleRowSql, customers, customers.size(),
+					(ps, customer) -> bind(ps, 0, customer));
+		}
+		log.debug("write::Inserted {} customers in {} mode", customers.size(), mode);
+	}
+
+	private void writeMultiRow(List<? extends Customer> customers) {
+		int fullStatements = customers.size() / rowsPerStatement;
+		if (fullStatements > 0) {
+			List<List<? extends Customer>> groups = new ArrayList<>(fullStatements);
+			for (int i = 0; i < fullStatements; i++) {
+				groups.add(customers.subList(i * rowsPerStatement, (i + 1) * rowsPerStatement));
+			}
+			jdbcTemplate.batchUpdate(multiRowSql, groups, groups.size(), this::bindRows);
+		}
+		List<? extends Customer> remainder = customers.subList(fullStatements * rowsPerStatement, customers.size());
+		if (!remainder.isEmpty()) {
+			jdbcTemplate.update(insertSql(remainder.size()), ps -> bindRows(ps, remainder));
+		}
+	}
+
+	private void bindRows(PreparedStatement ps, List<? extends Customer> rows) throws SQLException {
+		for (int i = 0; i < rows.size(); i++) {
+			bind(ps, i * COLUMN_COUNT, rows.get(i));
+		}
+	}
+
+	private void bind(PreparedStatement ps, int offset, Customer customer) throws SQLException {
+		ps.setLong(offset + 1, customer.getId());
+		ps.setString(offset + 2, customer.getFirstName());
+		ps.setString(offset + 3, customer.getSurname());
+		ps.setString(offset + 4, Customer.normalizeSurname(customer.getSurname()));
+		ps.setString(offset + 5, customer.getSmoothiePreference());
+		ps.setObject(offset + 6, customer.getMobileNumber(), Types.BIGINT);
+	}
+
+	private static String insertSql(int rows) {
+		StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDER.length() + 2));
+		sql.append(INSERT_PREFIX);
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append(ROW_PLACEHOLDER);
+		}
+		return sql.toString();
+	}
+}
@@ -0,0 +1,92 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+
+/**
+ * Reflection free {@link LineMapper} for customer csv lines (id, firstName, surname, smoothiePreference,
+ * mobileNumber). It scans the line once, parses the numeric columns straight from the characters of the
+ * line and only creates strings for the three text columns.
+ * <p>
+ * Lines containing a quote are handed to a {@link DelimitedLineTokenizer} with {@link CustomerFieldSetMapper},
+ * so quoted fields behave as before. Missing trailing columns are read as null and extra columns are ignored,
+ * like the non strict tokenizer. The mapper keeps no state between lines and can be shared by the threads
+ * of a multi-threaded step.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerLineMapper implements LineMapper<Customer> {
+
+	private static final char DELIMITER = ',';
+	private static final char QUOTE = '"';
+	private static final int COLUMN_COUNT = 5;
+
+	private final DelimitedLineTokenizer quotedLineTokenizer;
+	private final CustomerFieldSetMapper fieldSetMapper = new CustomerFieldSetMapper();
+
+	public CustomerLineMapper() {
+		quotedLineTokenizer = new DelimitedLineTokenizer();
+		quotedLineTokenizer.setDelimiter(String.valueOf(DELIMITER));
+		quotedLineTokenizer.setStrict(false);
+		quotedLineTokenizer.setNames(CustomerFieldSetMapper.COLUMN_NAMES);
+	}
+
+	@Override
+	public Customer mapLine(String line, int lineNumber) throws Exception {
+		if (line.indexOf(QUOTE) >= 0) {
+			Customer customer = fieldSetMapper.mapFieldSet(quotedLineTokenizer.tokenize(line));
+			customer.setLineNumber(lineNumber);
+			return customer;
+		}
+		Customer customer = new Customer();
+		customer.setLineNumber(lineNumber);
+		int start = 0;
+		int length = line.length();
+		for (int column = 0; column < COLUMN_COUNT && start <= length; column++) {
+			int end = line.indexOf(DELIMITER, start);
+			if (end < 0) {
+				end = length;
+			}
+			switch (column) {
+			case 0 -> customer.setId(parseLong(line, start, end, "id"));
+			case 1 -> customer.setFirstName(line.substring(start, end));
+			case 2 -> customer.setSurname(line.substring(start, end));
+			case 3 -> customer.setSmoothiePreference(line.substring(start, end));
+			default -> customer.setMobileNumber(parseLong(line, start, end, "mobileNumber"));
+			}
+			start = end + 1;
+		}
+		return customer;
+	}
+
+	/**
+	 * Parses the decimal number between {@code start} and {@code end}, ignoring surrounding blanks.
+	 * An empty column is read as null.
+	 */
+	static Long parseLong(CharSequence line, int start, int end, String column) {
+		while (start < end && Character.isWhitespace(line.charAt(start))) {
+			start++;
+		}
+		while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+			end--;
+		}
+		if (start == end) {
+			return null;
+		}
+		boolean negative = line.charAt(start) == '-';
+		int position = negative || line.charAt(start) == '+' ? start + 1 : start;
+		if (position == end || end - position > 18) {
+			return Long.valueOf(line.subSequence(start, end).toString());
+		}
+		long value = 0;
+		for (; position < end; position++) {
+			int digit = line.charAt(position) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("Invalid " + column + ": '" + line.subSequence(start, end) + "'");
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+}
@@ -1,19 +1,123 @@
 package com.rajeshkawali.config;
 
 import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.exception.CustomerValidationException;
 import org.springframework.batch.item.ItemProcessor;
 
 
 /**
+ * Normalizes the imported customers and rejects the ones breaking the {@link CustomerValidator} rules with a
+ * {@link CustomerValidationException}, so the import skips them here instead of failing the chunk insert:
+ * <ul>
+ * <li>text columns are trimmed, with {@code capitalizeNames} names and smoothie preferences written all in
+ * upper or lower case get capitalized words too</li>
+ * <li>mobile numbers longer than 10 digits starting with the country code lose it</li>
+ * </ul>
+ * Customers repeating the key of an earlier row are filtered out when duplicate detection is on, and in
+ * delta import mode customers that are unchanged since the last import are filtered out too.
+ * <p>
+ * The work is per row and stateless apart from the filters, the multi-threaded and partitioned steps run it
+ * on their chunk threads. The pipelined step runs {@link #normalize} on its process pool and {@link #filter}
+ * in read order.
+ *
  * @author Rajesh_Kawali
  *
  */
 public class CustomerProcessor implements ItemProcessor<Customer, Customer> {
 
+	private static final long MOBILE_NUMBER_LIMIT = 10_000_000_000L;
+
+	private final CustomerValidator validator = new CustomerValidator();
+	private final long mobileCountryCode;
+	private final boolean capitalizeNames;
+	private final CustomerDuplicateFilter duplicateFilter;
+	private final CustomerDeltaFilter deltaFilter;
+
+	/**
+	 * @param mobileCountryCode country code removed from mobile numbers, 0 to keep them as they are
+	 * @param capitalizeNames whether single case names get capitalized words, or are only trimmed
+	 * @param duplicateFilter filter of duplicate customers, null to keep duplicates
+	 * @param deltaFilter filter of unchanged customers, null to process every customer
+	 */
+	public CustomerProcessor(long mobileCountryCode, boolean capitalizeNames,
+			CustomerDuplicateFilter duplicateFilter, CustomerDeltaFilter deltaFilter) {
+		this.mobileCountryCode = mobileCountryCode;
+		this.capitalizeNames = capitalizeNames;
+		this.duplicateFilter = duplicateFilter;
+		this.deltaFilter = deltaFilter;
+	}
+
 	@Override
 	public Customer process(Customer item) throws Exception {
+		return filter(normalize(item));
+	}
 
+	/**
+	 * Normalizes and validates the customer, the part of {@link #process} that doesn't depend on the order
+	 * of the rows. Only the validator rejects a customer, normalizing never does.
+	 */
+	public Customer normalize(Customer item) {
+		item.setFirstName(normalizeText(item.getFirstName()));
+		item.setSurname(normalizeText(item.getSurname()));
+		item.setSmoothiePreference(normalizeText(item.getSmoothiePreference()));
+		item.setMobileNumber(canonicalMobileNumber(item.getMobileNumber()));
+		validator.validate(item);
 		return item;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Null for a duplicate or unchanged customer, the part of {@link #process} that depends on the order of
+	 * the rows, as the first of duplicate rows is kept.
+	 */
+	public Customer filter(Customer item) {
+		if (duplicateFilter != null && duplicateFilter.isDuplicate(item)) {
+			return null;
+		}
+		if (deltaFilter != null && deltaFilter.isUnchanged(item)) {
+			return null;
+		}
+		return item;
+	}
+
+	private String normalizeText(String value) {
+		if (value == null) {
+			return null;
+		}
+		String trimmed = value.strip();
+		return capitalizeNames ? capitalizeWords(trimmed) : trimmed;
+	}
+
+	/**
+	 * Capitalizes the words of a value written all in one case, mixed case is kept as written.
+	 */
+	static String capitalizeWords(String value) {
+		boolean hasUpper = false;
+		boolean hasLower = false;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			hasUpper |= Character.isUpperCase(c);
+			hasLower |= Character.isLowerCase(c);
+		}
+		if (hasUpper && hasLower) {
+			return value;
+		}
+		char[] chars = value.toCharArray();
+		boolean wordStart = true;
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = wordStart ? Character.toUpperCase(chars[i]) : Character.toLowerCase(chars[i]);
+			wordStart = !Character.isLetter(chars[i]);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * The last 10 digits of a longer number starting with the country code.
+	 */
+	private Long canonicalMobileNumber(Long mobileNumber) {
+		if (mobileNumber == null || mobileCountryCode <= 0 || mobileNumber < MOBILE_NUMBER_LIMIT) {
+			return mobileNumber;
+		}
+		return mobileNumber / MOBILE_NUMBER_LIMIT == mobileCountryCode ? mobileNumber % MOBILE_NUMBER_LIMIT : mobileNumber;
+	}
+
+}
@@ -0,0 +1,247 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemReadListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes Micrometer metrics of the import steps, tagged with the step name (partitions share the name
+ * of their worker step):
+ * <ul>
+ * <li>{@code customer.import.chunk.read}, {@code .process} and {@code .write}: time spent per chunk in each phase</li>
+ * <li>{@code customer.import.items.per.second}: items written per second by the running or last execution</li>
+ * <li>{@code customer.import.skips} (tagged with the phase) and {@code customer.import.retries}</li>
+ * <li>{@code customer.import.chunk.size} and {@code customer.import.chunk.size.changes}: size set by an
+ * {@link AdaptiveChunkSizePolicy}, the last one set by any partition</li>
+ * </ul>
+ * The read and process times of a chunk are summed per thread, so the listener can be shared by the
+ * threads of a multi-threaded step. Retries are only counted on fault tolerant steps, where it is
+ * registered as {@link RetryListener} too.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerStepMetricsListener implements StepExecutionListener, ChunkListener,
+		ItemReadListener<Customer>, ItemProcessListener<Customer, Customer>, ItemWriteListener<Customer>,
+		SkipListener<Customer, Customer>, RetryListener {
+
+	private final MeterRegistry meterRegistry;
+	private final Map<String, StepMetrics> stepMetrics = new ConcurrentHashMap<>();
+	private final ThreadLocal<ChunkTiming> chunkTiming = ThreadLocal.withInitial(ChunkTiming::new);
+
+	public CustomerStepMetricsListener(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void beforeStep(StepExecution stepExecution) {
+		metrics(stepExecution.getStepName()).start();
+	}
+
+	@Override
+	public ExitStatus afterStep(StepExecution stepExecution) {
+		metrics(stepExecution.getStepName()).stop();
+		return null;
+	}
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		ChunkTiming timing = chunkTiming.get();
+		timing.metrics = metrics(context.getStepContext().getStepName());
+		timing.readNanos = 0;
+		timing.processNanos = 0;
+	}
+
+	@Override
+	public void afterChunk(ChunkContext context) {
+		ChunkTiming timing = chunkTiming.get();
+		if (timing.metrics != null) {
+			timing.metrics.readTimer.record(timing.readNanos, TimeUnit.NANOSECONDS);
+			timing.metrics.processTimer.record(timing.processNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void beforeRead() {
+		chunkTiming.get().phaseStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterRead(Customer item) {
+		ChunkTiming timing = chunkTiming.get();
+		timing.readNanos += System.nanoTime() - timing.phaseStart;
+	}
+
+	@Override
+	public void onReadError(Exception ex) {
+		afterRead(null);
+	}
+
+	@Override
+	public void beforeProcess(Customer item) {
+		chunkTiming.get().phaseStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterProcess(Customer item, Customer result) {
+		ChunkTiming timing = chunkTiming.get();
+		timing.processNanos += System.nanoTime() - timing.phaseStart;
+	}
+
+	@Override
+	public void onProcessError(Customer item, Exception e) {
+		afterProcess(item, null);
+	}
+
+	@Override
+	public void beforeWrite(Chunk<? extends Customer> items) {
+		chunkTiming.get().phaseStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterWrite(Chunk<? extends Customer> items) {
+		ChunkTiming timing = chunkTiming.get();
+		if (timing.metrics != null) {
+			timing.metrics.writeTimer.record(System.nanoTime() - timing.phaseStart, TimeUnit.NANOSECONDS);
+			timing.metrics.writtenItems.add(items.size());
+		}
+	}
+
+	@Override
+	public void onSkipInRead(Throwable t) {
+		skipCounter(0);
+	}
+
+	@Override
+	public void onSkipInProcess(Customer item, Throwable t) {
+		skipCounter(1);
+	}
+
+	@Override
+	public void onSkipInWrite(Customer item, Throwable t) {
+		skipCounter(2);
+	}
+
+	@Override
+	public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+		StepMetrics metrics = chunkTiming.get().metrics;
+		if (metrics != null) {
+			metrics.retryCounter.increment();
+		}
+	}
+
+	/**
+	 * Publishes the chunk size of a step with an adaptive chunk size.
+	 *
+	 * @param changed whether the size was changed, rather than set when the step started
+	 */
+	public void chunkSize(String stepName, int size, boolean changed) {
+		StepMetrics metrics = metrics(stepName);
+		metrics.chunkSize.set(size);
+		Gauge.builder("customer.import.chunk.size", metrics.chunkSize, AtomicInteger::get)
+				.tag("step", metrics.step)
+				.register(meterRegistry);
+		if (changed) {
+			meterRegistry.counter("customer.import.chunk.size.changes", "step", metrics.step).increment();
+		}
+	}
+
+	private void skipCounter(int phase) {
+		StepMetrics metrics = chunkTiming.get().metrics;
+		if (metrics != null) {
+			metrics.skipCounters[phase].increment();
+		}
+	}
+
+	private StepMetrics metrics(String stepName) {
+		int partitionSeparator = stepName.indexOf(':');
+		String step = partitionSeparator < 0 ? stepName : stepName.substring(0, partitionSeparator);
+		return stepMetrics.computeIfAbsent(step, name -> new StepMetrics(meterRegistry, name));
+	}
+
+	private static final class ChunkTiming {
+		private StepMetrics metrics;
+		private long phaseStart;
+		private long readNanos;
+		private long processNanos;
+	}
+
+	private static final class StepMetrics {
+
+		private final String step;
+		private final Timer readTimer;
+		private final Timer processTimer;
+		private final Timer writeTimer;
+		private final Counter[] skipCounters;
+		private final Counter retryCounter;
+		private final LongAdder writtenItems = new LongAdder();
+		private final LongAdder runningExecutions = new LongAdder();
+		private final AtomicInteger chunkSize = new AtomicInteger();
+		private volatile long startNanos;
+		private volatile long stopNanos;
+
+		private StepMetrics(MeterRegistry meterRegistry, String step) {
+			this.step = step;
+			readTimer = meterRegistry.timer("customer.import.chunk.read", "step", step);
+			processTimer = meterRegistry.timer("customer.import.chunk.process", "step", step);
+			writeTimer = meterRegistry.timer("customer.import.chunk.write", "step", step);
+			skipCounters = new Counter[] {
+					meterRegistry.counter("customer.import.skips", "step", step, "phase", "read"),
+					meterRegistry.counter("customer.import.skips", "step", step, "phase", "process"),
+					meterRegistry.counter("customer.import.skips", "step", step, "phase", "write") };
+			retryCounter = meterRegistry.counter("customer.import.retries", "step", step);
+			Gauge.builder("customer.import.items.per.second", this, StepMetrics::itemsPerSecond)
+					.tag("step", step)
+					.register(meterRegistry);
+		}
+
+		/**
+		 * The first execution of a step (or partition) restarts the throughput measurement, the last one
+		 * to finish stops it.
+		 */
+		private synchronized void start() {
+			if (runningExecutions.sum() == 0) {
+				writtenItems.reset();
+				startNanos = System.nanoTime();
+				stopNanos = 0;
+			}
+			runningExecutions.increment();
+		}
+
+		private synchronized void stop() {
+			runningExecutions.decrement();
+			if (runningExecutions.sum() == 0) {
+				stopNanos = System.nanoTime();
+			}
+		}
+
+		private double itemsPerSecond() {
+			long start = startNanos;
+			if (start == 0) {
+				return 0;
+			}
+			long end = stopNanos == 0 ? System.nanoTime() : stopNanos;
+			return end > start ? writtenItems.sum() * 1e9 / (end - start) : 0;
+		}
+	}
+}
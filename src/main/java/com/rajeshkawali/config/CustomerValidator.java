@@ -0,0 +1,90 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.exception.CustomerValidationException;
+import jakarta.persistence.Column;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Checks imported customers against the bean validation constraints of {@link CustomerDTO} ({@code @NotNull},
+ * {@code @NotEmpty}, {@code @NotBlank} and {@code @Digits}) and the column lengths of {@link Customer}.
+ * The annotations are read once when the validator is built and turned into a list of checks, validating
+ * a customer calls plain getters and doesn't use reflection.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerValidator {
+
+	private static final Map<String, Function<Customer, Object>> PROPERTIES = Map.of(
+			"firstName", Customer::getFirstName,
+			"surname", Customer::getSurname,
+			"smoothiePreference", Customer::getSmoothiePreference,
+			"mobileNumber", Customer::getMobileNumber);
+
+	private final List<Check> checks = new ArrayList<>();
+
+	public CustomerValidator() {
+		for (Field field : CustomerDTO.class.getDeclaredFields()) {
+			Function<Customer, Object> property = PROPERTIES.get(field.getName());
+			if (property != null) {
+				compileConstraints(field, property);
+			}
+		}
+		for (Field field : Customer.class.getDeclaredFields()) {
+			Function<Customer, Object> property = PROPERTIES.get(field.getName());
+			Column column = field.getAnnotation(Column.class);
+			if (property != null && column != null && field.getType() == String.class) {
+				int length = column.length();
+				checks.add(new Check(field.getName(), property, value -> value == null || ((String) value).length() <= length,
+						"longer than " + length + " characters"));
+			}
+		}
+	}
+
+	/**
+	 * @throws CustomerValidationException for the first constraint the customer breaks
+	 */
+	public void validate(Customer customer) {
+		for (Check check : checks) {
+			Object value = check.property.apply(customer);
+			if (!check.valid.test(value)) {
+				throw new CustomerValidationException(check.name + ": " + check.message + " ('" + value + "')");
+			}
+		}
+	}
+
+	private void compileConstraints(Field field, Function<Customer, Object> property) {
+		String name = field.getName();
+		NotNull notNull = field.getAnnotation(NotNull.class);
+		if (notNull != null) {
+			checks.add(new Check(name, property, value -> value != null, notNull.message()));
+		}
+		NotEmpty notEmpty = field.getAnnotation(NotEmpty.class);
+		if (notEmpty != null) {
+			checks.add(new Check(name, property, value -> value != null && !value.toString().isEmpty(), notEmpty.message()));
+		}
+		NotBlank notBlank = field.getAnnotation(NotBlank.class);
+		if (notBlank != null) {
+			checks.add(new Check(name, property, value -> value != null && !value.toString().isBlank(), notBlank.message()));
+		}
+		Digits digits = field.getAnnotation(Digits.class);
+		if (digits != null) {
+			long limit = digits.integer() >= 19 ? Long.MAX_VALUE : (long) Math.pow(10, digits.integer());
+			checks.add(new Check(name, property, value -> value == null || Math.abs((Long) value) < limit, digits.message()));
+		}
+	}
+
+	private record Check(String name, Function<Customer, Object> property, Predicate<Object> valid, String message) {
+	}
+}
@@ -0,0 +1,220 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.ImplicitNamingStrategy;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Two connection pools, so a long import doesn't take the connections of the api:
+ * <ul>
+ * <li>OLTP (primary): {@code spring.datasource.*} and {@code spring.jpa.*}, used by {@code CustomerService},
+ * the repositories and the api</li>
+ * <li>bulk: {@code customer.datasource.bulk.*}, used by the import job, its job repository and writers. Its
+ * entity manager factory adds the {@code customer.datasource.bulk.jpa.properties} to the JPA properties, JDBC
+ * batching and insert ordering on and SQL logging off by default. Unset connection settings are taken
+ * from {@code spring.datasource}.</li>
+ * </ul>
+ * With {@code customer.datasource.bulk.enabled=false} the bulk beans are the OLTP ones and the job shares the
+ * OLTP pool, as before.
+ * <p>
+ * A second {@link DataSource} bean makes Boot's DataSource and JPA auto-configuration back off, so the primary
+ * beans are declared here. Both entity manager factories get the Hibernate properties the way Boot's own would:
+ * the naming strategy beans, Spring managed Hibernate beans and the {@link HibernatePropertiesCustomizer} beans,
+ * and both transaction managers get the {@code spring.transaction.*} customizers.
+ *
+ * @author Rajesh_Kawali
+ */
+@Configuration
+public class DataSourceConfig {
+
+	public static final String BULK_DATA_SOURCE = "bulkDataSource";
+	public static final String BULK_ENTITY_MANAGER_FACTORY = "bulkEntityManagerFactory";
+	public static final String BULK_TRANSACTION_MANAGER = "bulkTransactionManager";
+
+	private static final String BULK_ENABLED = "customer.datasource.bulk.enabled";
+
+	private final JpaProperties jpaProperties;
+	private final HibernateProperties hibernateProperties;
+	private final ConfigurableListableBeanFactory beanFactory;
+	private final ObjectProvider<PhysicalNamingStrategy> physicalNamingStrategy;
+	private final ObjectProvider<ImplicitNamingStrategy> implicitNamingStrategy;
+	private final ObjectProvider<HibernatePropertiesCustomizer> hibernatePropertiesCustomizers;
+	private final ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers;
+
+	public DataSourceConfig(JpaProperties jpaProperties, HibernateProperties hibernateProperties,
+			ConfigurableListableBeanFactory beanFactory, ObjectProvider<PhysicalNamingStrategy> physicalNamingStrategy,
+			ObjectProvider<ImplicitNamingStrategy> implicitNamingStrategy,
+			ObjectProvider<HibernatePropertiesCustomizer> hibernatePropertiesCustomizers,
+			ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+		this.jpaProperties = jpaProperties;
+		this.hibernateProperties = hibernateProperties;
+		this.beanFactory = beanFactory;
+		this.physicalNamingStrategy = physicalNamingStrategy;
+		this.implicitNamingStrategy = implicitNamingStrategy;
+		this.hibernatePropertiesCustomizers = hibernatePropertiesCustomizers;
+		this.transactionManagerCustomizers = transactionManagerCustomizers;
+	}
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource")
+	public DataSourceProperties dataSourceProperties() {
+		return new DataSourceProperties();
+	}
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	@Primary
+	public LocalContainerEntityManagerFactoryBean entityManagerFactory(EntityManagerFactoryBuilder builder,
+			DataSource dataSource) {
+		return builder.dataSource(dataSource)
+				.packages(Customer.class)
+				.persistenceUnit("oltp")
+				.properties(hibernateProperties(jpaProperties.getProperties(), () -> "none"))
+				.build();
+	}
+
+	@Bean
+	@Primary
+	public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+		return customize(new JpaTransactionManager(entityManagerFactory));
+	}
+
+	/**
+	 * Hibernate properties of an entity manager factory from the given JPA settings.
+	 *
+	 * @param ddlAuto schema action when {@code spring.jpa.hibernate.ddl-auto} isn't set
+	 */
+	Map<String, Object> hibernateProperties(Map<String, String> jpaSettings, Supplier<String> ddlAuto) {
+		// same order as Boot's HibernateJpaConfiguration, the customizer beans come last and win
+		List<HibernatePropertiesCustomizer> customizers = new ArrayList<>();
+		customizers.add(properties -> properties.put(AvailableSettings.BEAN_CONTAINER,
+				new SpringBeanContainer(beanFactory)));
+		physicalNamingStrategy.ifAvailable(strategy -> customizers.add(
+				properties -> properties.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, strategy)));
+		implicitNamingStrategy.ifAvailable(strategy -> customizers.add(
+				properties -> properties.put(AvailableSettings.IMPLICIT_NAMING_STRATEGY, strategy)));
+		customizers.addAll(hibernatePropertiesCustomizers.orderedStream().toList());
+		return hibernateProperties.determineHibernateProperties(jpaSettings,
+				new HibernateSettings().ddlAuto(ddlAuto).hibernatePropertiesCustomizers(customizers));
+	}
+
+	/**
+	 * Applies the {@code spring.transaction.*} settings, such as the default timeout.
+	 */
+	JpaTransactionManager customize(JpaTransactionManager transactionManager) {
+		transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+		return transactionManager;
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = BULK_ENABLED, havingValue = "true", matchIfMissing = true)
+	static class BulkDataSourceConfig {
+
+		/**
+		 * Starts from the OLTP connection settings, {@code customer.datasource.bulk.*} overrides them.
+		 */
+		@Bean
+		@ConfigurationProperties("customer.datasource.bulk")
+		public DataSourceProperties bulkDataSourceProperties(DataSourceProperties dataSourceProperties) {
+			DataSourceProperties properties = new DataSourceProperties();
+			properties.setUrl(dataSourceProperties.determineUrl());
+			properties.setDriverClassName(dataSourceProperties.determineDriverClassName());
+			properties.setUsername(dataSourceProperties.determineUsername());
+			properties.setPassword(dataSourceProperties.determinePassword());
+			return properties;
+		}
+
+		@Bean(BULK_DATA_SOURCE)
+		@ConfigurationProperties("customer.datasource.bulk.hikari")
+		public HikariDataSource bulkDataSource(
+				@Qualifier("bulkDataSourceProperties") DataSourceProperties bulkDataSourceProperties) {
+			return bulkDataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		}
+
+		/**
+		 * Same mappings, id block size and customizers as the OLTP one, never touches the schema.
+		 */
+		@Bean(BULK_ENTITY_MANAGER_FACTORY)
+		public LocalContainerEntityManagerFactoryBean bulkEntityManagerFactory(EntityManagerFactoryBuilder builder,
+				@Qualifier(BULK_DATA_SOURCE) DataSource bulkDataSource, JpaProperties jpaProperties,
+				DataSourceConfig dataSourceConfig, Environment environment) {
+			Map<String, String> jpaSettings = new HashMap<>(jpaProperties.getProperties());
+			jpaSettings.putAll(Binder.get(environment)
+					.bind("customer.datasource.bulk.jpa.properties", Bindable.mapOf(String.class, String.class))
+					.orElse(Map.of()));
+			Map<String, Object> properties = dataSourceConfig.hibernateProperties(jpaSettings, () -> "none");
+			properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+			return builder.dataSource(bulkDataSource)
+					.packages(Customer.class)
+					.persistenceUnit("bulk")
+					.properties(properties)
+					.build();
+		}
+
+		@Bean(BULK_TRANSACTION_MANAGER)
+		public JpaTransactionManager bulkTransactionManager(
+				@Qualifier(BULK_ENTITY_MANAGER_FACTORY) EntityManagerFactory bulkEntityManagerFactory,
+				DataSourceConfig dataSourceConfig) {
+			return dataSourceConfig.customize(new JpaTransactionManager(bulkEntityManagerFactory));
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = BULK_ENABLED, havingValue = "false")
+	static class SharedDataSourceConfig {
+
+		@Bean(name = BULK_DATA_SOURCE, destroyMethod = "")
+		public DataSource bulkDataSource(DataSource dataSource) {
+			return dataSource;
+		}
+
+		@Bean(name = BULK_ENTITY_MANAGER_FACTORY, destroyMethod = "")
+		public EntityManagerFactory bulkEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+			return entityManagerFactory;
+		}
+
+		@Bean(BULK_TRANSACTION_MANAGER)
+		public PlatformTransactionManager bulkTransactionManager(PlatformTransactionManager transactionManager) {
+			return transactionManager;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.rajeshkawali.config;
+
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File resource that only exposes the bytes between {@code start} (inclusive) and {@code end} (exclusive),
+ * so a {@link org.springframework.batch.item.file.FlatFileItemReader} can read one partition of a file.
+ *
+ * @author Rajesh_Kawali
+ */
+public class FileRangeResource extends FileSystemResource {
+
+	private final long start;
+	private final long end;
+
+	public FileRangeResource(String path, long start, long end) {
+		super(path);
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		FileChannel channel = FileChannel.open(Path.of(getPath()), StandardOpenOption.READ);
+		channel.position(start);
+		return new RangeInputStream(Channels.newInputStream(channel), end - start);
+	}
+
+	@Override
+	public long contentLength() {
+		return end - start;
+	}
+
+	@Override
+	public String getDescription() {
+		return super.getDescription() + " [" + start + ", " + end + ")";
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || (other instanceof FileRangeResource range && super.equals(other)
+				&& start == range.start && end == range.end);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * super.hashCode() + Long.hashCode(start)) + Long.hashCode(end);
+	}
+
+	private static final class RangeInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		private RangeInputStream(InputStream in, long remaining) {
+			super(in);
+			this.remaining = remaining;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int value = super.read();
+			if (value >= 0) {
+				remaining--;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+			if (read > 0) {
+				remaining -= read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(super.available(), remaining);
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
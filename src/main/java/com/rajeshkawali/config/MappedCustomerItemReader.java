@@ -0,0 +1,258 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemStreamItemReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link ItemStreamReader} of customer csv lines that memory maps the file with {@link FileChannel#map} and
+ * scans delimiters directly in the mapped bytes. Numeric columns are parsed from the bytes, only the text
+ * columns are decoded into strings. Lines with quotes are decoded and handed to {@link CustomerLineMapper}.
+ * <p>
+ * The file is mapped in windows of at most {@value #WINDOW_SIZE} bytes, so files larger than 2 GB work.
+ * The byte offset of the next line is saved in the {@link ExecutionContext}, a restart continues from there,
+ * unless {@code saveState} is false, as for a reader shared by several threads.
+ * Like {@code FlatFileItemReader} it can read a byte range only, for the partitioned import.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class MappedCustomerItemReader extends AbstractItemStreamItemReader<Customer> {
+
+	static final int WINDOW_SIZE = 1 << 28;
+
+	private static final String OFFSET_KEY = "offset";
+	private static final String LINE_NUMBER_KEY = "line.number";
+	private static final byte DELIMITER = ',';
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+	private static final int COLUMN_COUNT = 5;
+
+	private final Path path;
+	private final long startOffset;
+	private final long endOffset;
+	private final boolean skipHeader;
+	private final CustomerLineMapper quotedLineMapper = new CustomerLineMapper();
+
+	private boolean saveState = true;
+
+	private FileChannel channel;
+	private MappedByteBuffer window;
+	private long windowStart;
+	private long position;
+	private long end;
+	private int lineNumber;
+	private byte[] scratch = new byte[256];
+
+	/**
+	 * Reader of the whole file, skipping the header line.
+	 */
+	public MappedCustomerItemReader(Path path) {
+		this(path, 0, -1, true);
+	}
+
+	/**
+	 * Reader of the bytes between {@code startOffset} and {@code endOffset}, -1 meaning the end of the file.
+	 */
+	public MappedCustomerItemReader(Path path, long startOffset, long endOffset, boolean skipHeader) {
+		this.path = path;
+		this.startOffset = startOffset;
+		this.endOffset = endOffset;
+		this.skipHeader = skipHeader;
+		setName("csv-mapped-reader");
+	}
+
+	public void setSaveState(boolean saveState) {
+		this.saveState = saveState;
+	}
+
+	public boolean isSaveState() {
+		return saveState;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		super.open(executionContext);
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			end = endOffset < 0 ? channel.size() : Math.min(endOffset, channel.size());
+			String offsetKey = getExecutionContextKey(OFFSET_KEY);
+			if (saveState && executionContext.containsKey(offsetKey)) {
+				position = executionContext.getLong(offsetKey);
+				lineNumber = executionContext.getInt(getExecutionContextKey(LINE_NUMBER_KEY), 0);
+				log.debug("open::Restarting {} at offset {}", path, position);
+			} else {
+				position = startOffset;
+				lineNumber = 0;
+				if (skipHeader) {
+					position = lineEnd(position) + 1;
+					lineNumber = 1;
+				}
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Unable to open " + path, e);
+		}
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (!saveState) {
+			return;
+		}
+		synchronized (this) {
+			executionContext.putLong(getExecutionContextKey(OFFSET_KEY), position);
+			executionContext.putInt(getExecutionContextKey(LINE_NUMBER_KEY), lineNumber);
+		}
+	}
+
+	@Override
+	public void close() throws ItemStreamException {
+		super.close();
+		window = null;
+		try {
+			if (channel != null) {
+				channel.close();
+			}
+		} catch (IOException e) {
+			throw new ItemStreamException("Unable to close " + path, e);
+		} finally {
+			channel = null;
+		}
+	}
+
+	@Override
+	public synchronized Customer read() throws Exception {
+		while (position < end) {
+			long lineStart = position;
+			long lineEnd = lineEnd(lineStart);
+			position = lineEnd + 1;
+			lineNumber++;
+			long contentEnd = lineEnd > lineStart && byteAt(lineEnd - 1) == CR ? lineEnd - 1 : lineEnd;
+			if (contentEnd > lineStart) {
+				return mapLine(lineStart, contentEnd);
+			}
+		}
+		return null;
+	}
+
+	private Customer mapLine(long lineStart, long lineEnd) throws Exception {
+		int from = (int) (lineStart - windowStart);
+		int to = (int) (lineEnd - windowStart);
+		for (int i = from; i < to; i++) {
+			if (window.get(i) == QUOTE) {
+				String line = decode(from, to);
+				try {
+					return quotedLineMapper.mapLine(line, lineNumber);
+				} catch (Exception e) {
+					throw new FlatFileParseException("Parsing error at line: " + lineNumber, e, line, lineNumber);
+				}
+			}
+		}
+		try {
+			Customer customer = new Customer();
+			customer.setLineNumber(lineNumber);
+			int start = from;
+			for (int column = 0; column < COLUMN_COUNT && start <= to; column++) {
+				int columnEnd = start;
+				while (columnEnd < to && window.get(columnEnd) != DELIMITER) {
+					columnEnd++;
+				}
+				switch (column) {
+				case 0 -> customer.setId(parseLong(start, columnEnd));
+				case 1 -> customer.setFirstName(decode(start, columnEnd));
+				case 2 -> customer.setSurname(decode(start, columnEnd));
+				case 3 -> customer.setSmoothiePreference(decode(start, columnEnd));
+				default -> customer.setMobileNumber(parseLong(start, columnEnd));
+				}
+				start = columnEnd + 1;
+			}
+			return customer;
+		} catch (NumberFormatException e) {
+			String line = decode(from, to);
+			throw new FlatFileParseException("Parsing error at line: " + lineNumber, e, line, lineNumber);
+		}
+	}
+
+	private Long parseLong(int start, int end) {
+		while (start < end && window.get(start) == ' ') {
+			start++;
+		}
+		while (end > start && window.get(end - 1) == ' ') {
+			end--;
+		}
+		if (start == end) {
+			return null;
+		}
+		boolean negative = window.get(start) == '-';
+		int index = negative || window.get(start) == '+' ? start + 1 : start;
+		if (index == end || end - index > 18) {
+			return Long.valueOf(decode(start, end));
+		}
+		long value = 0;
+		for (; index < end; index++) {
+			int digit = window.get(index) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("Invalid number: '" + decode(start, end) + "'");
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	private String decode(int start, int end) {
+		int length = end - start;
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		window.get(start, scratch, 0, length);
+		return new String(scratch, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Offset of the line feed ending the line that starts at {@code lineStart}, or {@link #end} for the
+	 * last line. Remaps the window so the whole line is mapped.
+	 */
+	private long lineEnd(long lineStart) throws IOException {
+		if (window == null || lineStart < windowStart || lineStart >= windowStart + window.limit()) {
+			map(lineStart);
+		}
+		while (true) {
+			int limit = window.limit();
+			for (int i = (int) (lineStart - windowStart); i < limit; i++) {
+				if (window.get(i) == LF) {
+					return windowStart + i;
+				}
+			}
+			long mappedEnd = windowStart + limit;
+			if (mappedEnd >= end) {
+				return end;
+			}
+			if (windowStart == lineStart) {
+				throw new IOException("Line at offset " + lineStart + " is longer than " + WINDOW_SIZE + " bytes");
+			}
+			map(lineStart);
+		}
+	}
+
+	private byte byteAt(long offset) {
+		return window.get((int) (offset - windowStart));
+	}
+
+	private void map(long offset) throws IOException {
+		windowStart = offset;
+		window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, end - offset));
+	}
+}
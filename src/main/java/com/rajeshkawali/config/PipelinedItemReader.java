@@ -0,0 +1,407 @@
+package com.rajeshkawali.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.AbstractItemStreamItemReader;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reader of a pipelined step: reading, processing and writing run at the same time on their own threads.
+ * <ul>
+ * <li>read stage: one task on the {@code readExecutor} reads the delegate in batches, reading is sequential
+ * for one file</li>
+ * <li>process stage: the batches run through the {@code processor} on the {@code processExecutor}, several at
+ * a time</li>
+ * <li>write stage: the chunk threads of the step take the processed items from this reader and write them</li>
+ * </ul>
+ * The stages are connected by a bounded queue of {@code queueCapacity} batches. The queue holds the batches
+ * in read order and {@link #read()} waits for each in turn, so a slow stage holds back the ones before it and
+ * the items are handed out in read order whichever batch finished processing first. The
+ * {@code orderedProcessor} runs on the processed items while they are handed out, strictly in read order,
+ * for the work that depends on it such as keeping the first of duplicate rows.
+ * <p>
+ * This reader is also the processor of the step: {@link #process} returns the result computed for the item,
+ * or throws the exception the processors threw for it, so skips, filters and listeners work as in a plain
+ * step. The results are held by the reader until the step asks for them and dropped on {@link #close()}.
+ * <p>
+ * The saved state is the delegate state at the start of the batch of the last item handed to the step plus
+ * the position in that batch, a restart reopens the delegate there and skips the items already handed out.
+ * With several write threads the items of a batch end up in different chunks, set {@code saveState} to false then.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+public class PipelinedItemReader<I, O> extends AbstractItemStreamItemReader<I> implements ItemProcessor<I, O> {
+
+	private static final String POSITION_KEY = "batch.position";
+	private static final long CLOSE_TIMEOUT_SECONDS = 30;
+	private static final long HAND_OFF_POLL_MILLIS = 100;
+
+	private final ItemStreamReader<I> delegate;
+	private final ItemProcessor<I, O> processor;
+	private final ItemProcessor<O, O> orderedProcessor;
+	private final int batchSize;
+	private final TaskExecutor readExecutor;
+	private final TaskExecutor processExecutor;
+	private final BlockingQueue<Future<Batch>> handOff;
+	private final Map<I, Object> results = new IdentityHashMap<>();
+
+	private boolean saveState = true;
+
+	private StepExecution stepExecution;
+	private FutureTask<Void> readTask;
+	private volatile boolean stopped;
+
+	private ExecutionContext batchStartState = new ExecutionContext();
+	private Batch current;
+	private int position;
+	private boolean finished;
+
+	/**
+	 * @param processor processor of the process stage, run on several batches at a time
+	 * @param orderedProcessor processor of the items handed out, in read order, null for none
+	 */
+	public PipelinedItemReader(ItemStreamReader<I> delegate, ItemProcessor<I, O> processor,
+			ItemProcessor<O, O> orderedProcessor, int batchSize, int queueCapacity, TaskExecutor readExecutor,
+			TaskExecutor processExecutor) {
+		this.delegate = delegate;
+		this.processor = processor;
+		this.orderedProcessor = orderedProcessor;
+		this.batchSize = batchSize;
+		this.readExecutor = readExecutor;
+		this.processExecutor = processExecutor;
+		this.handOff = new ArrayBlockingQueue<>(queueCapacity);
+		setName("pipelined-reader");
+	}
+
+	public void setSaveState(boolean saveState) {
+		this.saveState = saveState;
+	}
+
+	public boolean isSaveState() {
+		return saveState;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) throws ItemStreamException {
+		super.open(executionContext);
+		StepContext stepContext = StepSynchronizationManager.getContext();
+		stepExecution = stepContext != null ? stepContext.getStepExecution() : null;
+		delegate.open(executionContext);
+		batchStartState = new ExecutionContext();
+		delegate.update(batchStartState);
+		position = 0;
+		String positionKey = getExecutionContextKey(POSITION_KEY);
+		if (saveState && executionContext.containsKey(positionKey)) {
+			position = executionContext.getInt(positionKey);
+			skipHandedOutItems(position);
+		}
+		current = null;
+		finished = false;
+		stopped = false;
+		readTask = new FutureTask<>(this::readStage, null);
+		readExecutor.execute(readTask);
+	}
+
+	@Override
+	public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+		super.update(executionContext);
+		if (saveState) {
+			for (Map.Entry<String, Object> entry : batchStartState.entrySet()) {
+				executionContext.put(entry.getKey(), entry.getValue());
+			}
+			executionContext.putInt(getExecutionContextKey(POSITION_KEY), position);
+		}
+	}
+
+	/**
+	 * Stops the read stage, cancels the batches not processed yet and drops the results the step didn't ask
+	 * for. The executors are shared and keep running.
+	 */
+	@Override
+	public void close() throws ItemStreamException {
+		super.close();
+		stopped = true;
+		try {
+			if (readTask != null) {
+				cancelQueuedBatches();
+				readTask.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			log.warn("close::Read stage didn't end cleanly: {}", e.toString());
+		} finally {
+			cancelQueuedBatches();
+			readTask = null;
+			synchronized (this) {
+				results.clear();
+				current = null;
+			}
+			delegate.close();
+		}
+	}
+
+	@Override
+	public synchronized I read() throws Exception {
+		while (!finished) {
+			if (current == null || position == current.inputs.size()) {
+				if (current != null && current.last) {
+					finished = true;
+					break;
+				}
+				nextBatch();
+				continue;
+			}
+			Object input = current.inputs.get(position);
+			Object output = current.outputs[position];
+			position++;
+			if (input instanceof ReadFailure failure) {
+				throw failure.exception;
+			}
+			@SuppressWarnings("unchecked")
+			I item = (I) input;
+			results.put(item, processInOrder(output));
+			return item;
+		}
+		return null;
+	}
+
+	/**
+	 * The result computed for the item by the stages, an item processed again, for instance by a retry, goes
+	 * through the processors on the calling thread.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public O process(I item) throws Exception {
+		boolean handedOut;
+		Object result;
+		synchronized (this) {
+			handedOut = results.containsKey(item);
+			result = results.remove(item);
+		}
+		if (!handedOut) {
+			O output = processor.process(item);
+			return output == null || orderedProcessor == null ? output : orderedProcessor.process(output);
+		}
+		if (result instanceof ProcessFailure failure) {
+			if (failure.throwable instanceof Exception exception) {
+				throw exception;
+			}
+			throw (Error) failure.throwable;
+		}
+		return (O) result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object processInOrder(Object output) {
+		if (output == null || orderedProcessor == null || output instanceof ProcessFailure) {
+			return output;
+		}
+		try {
+			return orderedProcessor.process((O) output);
+		} catch (Throwable e) {
+			return new ProcessFailure(e);
+		}
+	}
+
+	private void nextBatch() throws Exception {
+		try {
+			current = handOff.take().get();
+			batchStartState = current.startState;
+			position = 0;
+		} catch (ExecutionException e) {
+			finished = true;
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e.getCause() instanceof Exception cause ? cause : e;
+		}
+	}
+
+	private void cancelQueuedBatches() {
+		Future<Batch> batch;
+		while ((batch = handOff.poll()) != null) {
+			batch.cancel(false);
+		}
+	}
+
+	private void skipHandedOutItems(int count) {
+		for (int i = 0; i < count; i++) {
+			try {
+				if (delegate.read() == null) {
+					break;
+				}
+			} catch (Exception e) {
+				log.debug("open::Skipped line failing to read again on restart: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Reads the delegate in batches and hands every batch to the process stage. Waits while the hand-off
+	 * queue is full, until the reader is closed. A batch the process executor rejects runs on the read stage.
+	 * A read stage ending on an error or an interrupt hands over the failure as its last batch, so {@link #read()}
+	 * never waits for a batch that doesn't come.
+	 */
+	private void readStage() {
+		register();
+		boolean interrupted = false;
+		Future<Batch> failure = null;
+		try {
+			boolean last = false;
+			while (!last && !stopped) {
+				ExecutionContext startState = new ExecutionContext();
+				if (saveState) {
+					delegate.update(startState);
+				}
+				List<Object> inputs = new ArrayList<>(batchSize);
+				while (inputs.size() < batchSize && !stopped) {
+					try {
+						I item = delegate.read();
+						if (item == null) {
+							last = true;
+							break;
+						}
+						inputs.add(item);
+					} catch (Exception e) {
+						inputs.add(new ReadFailure(e));
+					}
+				}
+				Batch batch = new Batch(startState, inputs, last);
+				FutureTask<Batch> processTask = new FutureTask<>(() -> processStage(batch));
+				if (!handOff(processTask)) {
+					break;
+				}
+				try {
+					processExecutor.execute(processTask);
+				} catch (TaskRejectedException e) {
+					processTask.run();
+				}
+			}
+		} catch (InterruptedException e) {
+			interrupted = true;
+			failure = CompletableFuture.failedFuture(e);
+		} catch (Throwable e) {
+			failure = CompletableFuture.failedFuture(e);
+		} finally {
+			if (failure != null) {
+				interrupted |= handOffFailure(failure);
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			release();
+		}
+	}
+
+	/**
+	 * Queues the batch before it runs, so the queue keeps the read order.
+	 *
+	 * @return false when the reader was closed while the queue was full
+	 */
+	private boolean handOff(Future<Batch> batch) throws InterruptedException {
+		while (!handOff.offer(batch, HAND_OFF_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+			if (stopped) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Queues the failure ending the read stage, waiting for room until the reader is closed, even when the
+	 * read stage was interrupted.
+	 *
+	 * @return whether the thread was interrupted
+	 */
+	private boolean handOffFailure(Future<Batch> failure) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				handOff(failure);
+				return interrupted;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+	}
+
+	private Batch processStage(Batch batch) {
+		register();
+		try {
+			for (int i = 0; i < batch.inputs.size(); i++) {
+				if (batch.inputs.get(i) instanceof ReadFailure) {
+					continue;
+				}
+				@SuppressWarnings("unchecked")
+				I item = (I) batch.inputs.get(i);
+				try {
+					batch.outputs[i] = processor.process(item);
+				} catch (Throwable e) {
+					batch.outputs[i] = new ProcessFailure(e);
+				}
+			}
+			return batch;
+		} finally {
+			release();
+		}
+	}
+
+	/**
+	 * Registers the step execution on a stage thread, for the step scoped beans and the filters looking
+	 * up the running job.
+	 */
+	private void register() {
+		if (stepExecution != null) {
+			StepSynchronizationManager.register(stepExecution);
+		}
+	}
+
+	private void release() {
+		if (stepExecution != null) {
+			StepSynchronizationManager.close();
+		}
+	}
+
+	private static final class Batch {
+
+		private final ExecutionContext startState;
+		private final List<Object> inputs;
+		private final Object[] outputs;
+		private final boolean last;
+
+		private Batch(ExecutionContext startState, List<Object> inputs, boolean last) {
+			this.startState = startState;
+			this.inputs = inputs;
+			this.outputs = new Object[inputs.size()];
+			this.last = last;
+		}
+	}
+
+	private record ReadFailure(Exception exception) {
+	}
+
+	private record ProcessFailure(Throwable throwable) {
+	}
+}
@@ -0,0 +1,61 @@
+package com.rajeshkawali.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces the calls of the rest controllers and services, replacing hand written ENTER/EXIT log lines.
+ * Events go to the logger of the traced class at DEBUG level, so {@code logging.level.com.rajeshkawali}
+ * controls them as before, and nothing is formatted when DEBUG is off.
+ * <p>
+ * Only a sample of the successful calls is logged, set with {@code customer.tracing.sample-rate}
+ * (1 logs every call); calls ending with an exception are always logged.
+ *
+ * @author Rajesh_Kawali
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+	private final double sampleRate;
+	private final Map<Class<?>, Logger> loggers = new ConcurrentHashMap<>();
+
+	public TracingAspect(@Value("${customer.tracing.sample-rate:0.01}") double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	@Around("execution(public * com.rajeshkawali..*(..)) && (@within(org.springframework.web.bind.annotation.RestController) || @within(org.springframework.stereotype.Service))")
+	public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+		MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+		Logger log = loggers.computeIfAbsent(signature.getDeclaringType(), LoggerFactory::getLogger);
+		if (!log.isDebugEnabled()) {
+			return joinPoint.proceed();
+		}
+		boolean sampled = sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+		if (sampled && log.isTraceEnabled()) {
+			log.trace("{}::ENTER", signature.getName());
+		}
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			if (sampled) {
+				log.debug("{}::EXIT in {} us", signature.getName(), (System.nanoTime() - start) / 1000);
+			}
+			return result;
+		} catch (Throwable e) {
+			log.debug("{}::EXIT with {} in {} us", signature.getName(), e.getClass().getSimpleName(),
+					(System.nanoTime() - start) / 1000);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.rajeshkawali.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Virtual thread mode (Java 21), switched on with {@code spring.threads.virtual.enabled=true}.
+ * Spring Boot then runs Tomcat request handling on virtual threads, which puts no limit on the number
+ * of requests hitting the database at once. The filter below caps the requests in flight so they wait
+ * here, cheaply on a virtual thread, instead of timing out on the connection pool.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+	@Bean
+	public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+			@Value("${customer.threads.request-concurrency-limit:20}") int concurrencyLimit) {
+		log.info("concurrencyLimitFilter::Request concurrency limit: {}", concurrencyLimit);
+		FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+				new FilterRegistrationBean<>(new ConcurrencyLimitFilter(concurrencyLimit));
+		registration.addUrlPatterns("/api/*");
+		return registration;
+	}
+
+	public static class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+		private final Semaphore permits;
+
+		public ConcurrencyLimitFilter(int concurrencyLimit) {
+			this.permits = new Semaphore(concurrencyLimit, true);
+		}
+
+		@Override
+		protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+				FilterChain filterChain) throws ServletException, IOException {
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+				return;
+			}
+			try {
+				filterChain.doFilter(request, response);
+			} finally {
+				permits.release();
+			}
+		}
+	}
+}
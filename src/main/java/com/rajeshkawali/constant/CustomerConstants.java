@@ -8,4 +8,16 @@ public class CustomerConstants {
 
 	public static final String ERROR_MESSAGE = "Please pass all the input fields : ";
 	public static final String DELETE_MESSAGE = "Customer successfully deleted.";
+	public static final String OUTCOME_UPDATED = "UPDATED";
+	public static final String OUTCOME_DELETED = "DELETED";
+	public static final String OUTCOME_NOT_FOUND = "NOT_FOUND";
+	public static final String OUTCOME_APPLIED = "APPLIED";
+	public static final String OUTCOME_INVALID = "INVALID";
+	public static final String CUSTOMER_BY_ID_CACHE = "customerById";
+	public static final String CUSTOMER_BY_SURNAME_CACHE = "customerBySurname";
+	public static final int MAX_PAGE_SIZE = 1000;
+	public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+	public static final String IMPORT_BASE_DIR = "src/main/resources";
+	public static final String CUSTOMER_CSV_PATH = "customers.csv";
+	public static final String INPUT_FILE_PARAMETER = "inputFile";
 }
\ No newline at end of file
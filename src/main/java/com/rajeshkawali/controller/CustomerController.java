@@ -1,7 +1,13 @@
 package com.rajeshkawali.controller;
 
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.BulkOperationResultDTO;
 import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.CustomerPageDTO;
+import com.rajeshkawali.dto.CustomerSearchPageDTO;
+import com.rajeshkawali.dto.JobExecutionDTO;
 import com.rajeshkawali.exception.ResponseStatus;
+import com.rajeshkawali.service.CustomerJobService;
 import com.rajeshkawali.service.CustomerService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.Explode;
@@ -11,18 +17,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.JobParametersInvalidException;
-import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -40,58 +44,109 @@ public class CustomerController implements CustomerControllerImpl {
 
     private final CustomerService customerService;
 
-    private final JobLauncher jobLauncher;
-
-    private final Job job;
+    private final CustomerJobService customerJobService;
 
     @PostMapping("/v1/customer/importCsv")
-    public void importCsvToDBJob() {
-        String _function = ".importCsvToDBJob";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        JobParameters jobParameters = new JobParametersBuilder()
-                .addLong("start", System.currentTimeMillis())
-                .toJobParameters();
+    public ResponseEntity<JobExecutionDTO> importCsvToDBJob(
+            @Parameter(description = "Csv file, directory or glob to import inside customer.import.base-dir, .gz and .zst files are read compressed")
+            @RequestParam(required = false) String inputFile) throws Exception {
+        JobExecutionDTO jobExecution;
         try {
-            jobLauncher.run(job, jobParameters);
-        } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception : {}", e);
+            jobExecution = customerJobService.launchImport(inputFile);
+        } catch (IllegalArgumentException e) {
+            log.error("importCsvToDBJob::Invalid input: {}", e.getMessage());
+            throw ResponseStatus.invalidImportInput.apply(e.getMessage());
+        } catch (TaskRejectedException e) {
+            log.error("importCsvToDBJob::Import rejected: {}", e.getMessage());
+            throw ResponseStatus.importRejected.get();
+        }
+        return ResponseEntity.status(customerJobService.isAsyncLaunch() ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                .body(jobExecution);
+    }
+
+    @PostMapping("/v1/customer/importCsv/{executionId}/restart")
+    public ResponseEntity<JobExecutionDTO> restartImportCsvJob(
+            @Parameter(description = "Id of the failed or stopped job execution", required = true) @PathVariable Long executionId) throws Exception {
+        JobExecutionDTO jobExecution;
+        try {
+            jobExecution = customerJobService.restartImport(executionId);
+        } catch (JobExecutionAlreadyRunningException | JobInstanceAlreadyCompleteException | JobRestartException e) {
+            log.error("restartImportCsvJob::Job execution {} can't be restarted: {}", executionId, e.getMessage());
+            throw ResponseStatus.jobExecutionNotRestartable.apply(executionId);
+        } catch (TaskRejectedException e) {
+            log.error("restartImportCsvJob::Restart rejected: {}", e.getMessage());
+            throw ResponseStatus.importRejected.get();
+        }
+        if (jobExecution == null) {
+            log.error("restartImportCsvJob::Job execution not available for given id: {}", executionId);
+            throw ResponseStatus.jobExecutionNotFound.apply(executionId);
+        }
+        return ResponseEntity.status(customerJobService.isAsyncLaunch() ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                .body(jobExecution);
+    }
+
+    @GetMapping("/v1/customer/importCsv/{executionId}")
+    public ResponseEntity<JobExecutionDTO> importCsvJobStatus(
+            @Parameter(description = "Job execution id", required = true) @PathVariable Long executionId) {
+        JobExecutionDTO jobExecution = customerJobService.jobExecutionById(executionId);
+        if (jobExecution != null) {
+            return ResponseEntity.status(HttpStatus.OK).body(jobExecution);
+        } else {
+            log.error("importCsvJobStatus::Job execution not available for given id: {}", executionId);
+            throw ResponseStatus.jobExecutionNotFound.apply(executionId);
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
+    }
+
+    @GetMapping("/v1/customer/importCsv/running")
+    public ResponseEntity<List<JobExecutionDTO>> runningImportCsvJobs() {
+        List<JobExecutionDTO> runningImports = customerJobService.runningImports();
+        return ResponseEntity.status(HttpStatus.OK).body(runningImports);
     }
 
     @PostMapping(value = "/v1/customer/upload", consumes = {"multipart/form-data"})
     public ResponseEntity<Integer> uploadCustomers(@RequestPart("file") MultipartFile file) throws Exception {
-        String _function = ".uploadCustomers";
-        log.info(CLASS_NAME + _function + "::ENTER");
         Integer uploadedCustomerCount = 0;
         try {
             uploadedCustomerCount = customerService.uploadCustomers(file);
-            log.info(CLASS_NAME + _function + "::No of customers uploaded is: {}", uploadedCustomerCount);
+            log.info("uploadCustomers::No of customers uploaded is: {}", uploadedCustomerCount);
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception : {}", e);
+            log.error("uploadCustomers::Exception : {}", e);
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return ResponseEntity.ok(uploadedCustomerCount);
     }
 
     @GetMapping("/v1/customer/getAll")
     public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        String _function = ".getAllCustomers";
-        log.info(CLASS_NAME + _function + "::ENTER");
         List<CustomerDTO> customerList = new ArrayList<>();
         customerList = customerService.getAllCustomers();
-        log.info(CLASS_NAME + _function + "::EXIT");
         return ResponseEntity.status(HttpStatus.OK).body(customerList);
     }
 
+    @GetMapping("/v1/customer/page")
+    public ResponseEntity<CustomerPageDTO> getCustomersPage(
+            @Parameter(description = "Id of the last customer of the previous page") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Page size, at most 1000") @RequestParam(defaultValue = "100") int size) {
+        log.debug("getCustomersPage::afterId: {}, size: {}", afterId, size);
+        CustomerPageDTO customerPage = customerService.getCustomersPage(afterId, size);
+        return ResponseEntity.status(HttpStatus.OK).body(customerPage);
+    }
+
+    @GetMapping(value = "/v1/customer/export", produces = CustomerConstants.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        StreamingResponseBody body = outputStream -> {
+            long exportedCount = customerService.exportCustomers(outputStream);
+            log.debug("exportCustomers::No of customers exported: {}", exportedCount);
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(CustomerConstants.NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
     @PostMapping("/v1/customer/add")
     public ResponseEntity<?> addCustomer(
             @Parameter(description = "Customer details") @Valid @RequestBody CustomerDTO customerDTO) {
-        String _function = ".addCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        log.debug(CLASS_NAME + _function + "::Customer details: {}", customerDTO);
+        log.debug("addCustomer::Customer details: {}", customerDTO);
         CustomerDTO addedCustomer = customerService.addCustomer(customerDTO);
-        log.info(CLASS_NAME + _function + "::EXIT");
         return ResponseEntity.status(HttpStatus.CREATED).body(addedCustomer);
 
     }
@@ -99,15 +154,12 @@ public class CustomerController implements CustomerControllerImpl {
     @GetMapping("/v1/customer/{id}")
     public ResponseEntity<?> customerById(
             @Parameter(description = "Customer id", required = true) @PathVariable Long id) {
-        String _function = ".customerById";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        log.debug(CLASS_NAME + _function + "::Requested customer id: {} ", id);
+        log.debug("customerById::Requested customer id: {} ", id);
         CustomerDTO addedCustomer = customerService.customerById(id);
         if (addedCustomer != null) {
-            log.info(CLASS_NAME + _function + "::EXIT");
             return ResponseEntity.status(HttpStatus.OK).body(addedCustomer);
         } else {
-            log.error(CLASS_NAME + _function + "::Customer not available for given id: {}", id);
+            log.error("customerById::Customer not available for given id: {}", id);
             throw ResponseStatus.idNotFound.apply(id);
         }
     }
@@ -115,47 +167,65 @@ public class CustomerController implements CustomerControllerImpl {
     @GetMapping("/v1/customer")
     public ResponseEntity<?> findCustomerBySurname(@Parameter(explode = Explode.TRUE, name = "surname", in = ParameterIn.QUERY, description = "Customer surname", style = ParameterStyle.FORM, schema = @Schema(type = "string", defaultValue = "available", allowableValues = {"koli", "kawali", "joshi"}))
                                                    @RequestParam String surname) {
-        String _function = ".findCustomerBySurname";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        log.debug(CLASS_NAME + _function + "::Customer surname: {} ", surname);
+        log.debug("findCustomerBySurname::Customer surname: {} ", surname);
         CustomerDTO addedCustomer = customerService.findCustomerBySurname(surname);
         if (addedCustomer != null) {
-            log.info(CLASS_NAME + _function + "::EXIT");
             return ResponseEntity.status(HttpStatus.OK).body(addedCustomer);
         } else {
-            log.error(CLASS_NAME + _function + "::Customer not available for given surname: {}", surname);
+            log.error("findCustomerBySurname::Customer not available for given surname: {}", surname);
             throw ResponseStatus.nameNotFound.apply(surname);
         }
     }
 
+    @GetMapping("/v1/customer/search")
+    public ResponseEntity<CustomerSearchPageDTO> searchCustomersBySurname(
+            @Parameter(description = "Customer surname or surname prefix, case-insensitive", required = true) @RequestParam String surname,
+            @Parameter(description = "Match surnames starting with the given value") @RequestParam(defaultValue = "false") boolean prefix,
+            @Parameter(description = "Zero based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 1000") @RequestParam(defaultValue = "20") int size) {
+        log.debug("searchCustomersBySurname::Customer surname: {}, prefix: {}", surname, prefix);
+        CustomerSearchPageDTO customers = customerService.searchCustomersBySurname(surname, prefix, page, size);
+        return ResponseEntity.status(HttpStatus.OK).body(customers);
+    }
+
     @PutMapping("/v1/customer/{id}")
     public ResponseEntity<?> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerDTO customerDTO) {
-        String _function = ".updateCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        log.debug(CLASS_NAME + _function + "::Customer details to update-> id: {}, Customer details: {}", id,
+        log.debug("updateCustomer::Customer details to update-> id: {}, Customer details: {}", id,
                 customerDTO);
         CustomerDTO updatedCustomer = customerService.updateCustomer(id, customerDTO);
         if (updatedCustomer != null) {
-            log.info(CLASS_NAME + _function + "::EXIT");
             return ResponseEntity.status(HttpStatus.OK).body(updatedCustomer);
         } else {
-            log.error(CLASS_NAME + _function + "::Customer not available for given Id: {} ", id);
+            log.error("updateCustomer::Customer not available for given Id: {} ", id);
             throw ResponseStatus.idNotFound.apply(id);
         }
     }
 
+    @PatchMapping("/v1/customer/bulk")
+    public ResponseEntity<List<BulkOperationResultDTO>> bulkUpdateCustomers(
+            @Parameter(description = "Customer ids with the fields to change") @RequestBody List<CustomerDTO> customersToUpdate) {
+        log.debug("bulkUpdateCustomers::No of customers to update: {}", customersToUpdate.size());
+        List<BulkOperationResultDTO> results = customerService.bulkUpdateCustomers(customersToUpdate);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @DeleteMapping("/v1/customer/bulk")
+    public ResponseEntity<List<BulkOperationResultDTO>> bulkDeleteCustomers(
+            @Parameter(description = "Customer ids to delete") @RequestBody List<Long> ids) {
+        log.debug("bulkDeleteCustomers::No of customers to delete: {}", ids.size());
+        List<BulkOperationResultDTO> results = customerService.bulkDeleteCustomers(ids);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
     @DeleteMapping("/v1/customer/{id}")
     public ResponseEntity<?> deleteCustomer(
             @Parameter(description = "Customer id to delete", required = true) @PathVariable Long id) {
-        String _function = ".deleteCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        log.debug(CLASS_NAME + _function + "::Customer id to delete from db: {} ", id);
+        log.debug("deleteCustomer::Customer id to delete from db: {} ", id);
         String result = customerService.deleteCustomer(id);
         if (result != null) {
-            log.info(CLASS_NAME + _function + "::EXIT");
             return ResponseEntity.status(HttpStatus.OK).body(result);
         } else {
-            log.error(CLASS_NAME + _function + "::Customer not available for given id: {} ", id);
+            log.error("deleteCustomer::Customer not available for given id: {} ", id);
             throw ResponseStatus.idNotFound.apply(id);
         }
     }
@@ -1,7 +1,12 @@
 package com.rajeshkawali.controller;
 
 
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.BulkOperationResultDTO;
 import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.CustomerPageDTO;
+import com.rajeshkawali.dto.CustomerSearchPageDTO;
+import com.rajeshkawali.dto.JobExecutionDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
@@ -22,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -35,7 +41,46 @@ public interface CustomerControllerImpl {
 
 
     @Tag(name = "importCsvToDBJob", description = "import customer details csv to DB job")
-    public void importCsvToDBJob();
+    @Operation(summary = "Launch the customer csv import job",
+            description = "Starts the import job for the given input, or customer.import.input when omitted, and returns its execution id. In async mode the job keeps running after the response is sent.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job launched asynchronously", content = { @Content(schema = @Schema(implementation = JobExecutionDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) }),
+            @ApiResponse(responseCode = "200", description = "Job finished", content = { @Content(schema = @Schema(implementation = JobExecutionDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) }),
+            @ApiResponse(responseCode = "400", description = "Input is outside customer.import.base-dir"),
+            @ApiResponse(responseCode = "503", description = "Import queue is full, the job was not started") })
+    public ResponseEntity<JobExecutionDTO> importCsvToDBJob(
+            @Parameter(description = "Csv file, directory or glob to import inside customer.import.base-dir, .gz and .zst files are read compressed")
+            @RequestParam(required = false) String inputFile) throws Exception;
+
+
+    @Tag(name = "importCsvToDBJob", description = "import customer details csv to DB job")
+    @Operation(summary = "Restart a failed import job execution",
+            description = "Runs the job instance of a failed or stopped execution again with the same parameters. Completed steps and partitions are not run again, the others continue from their last commit.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job restarted asynchronously", content = { @Content(schema = @Schema(implementation = JobExecutionDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) }),
+            @ApiResponse(responseCode = "200", description = "Job finished", content = { @Content(schema = @Schema(implementation = JobExecutionDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) }),
+            @ApiResponse(responseCode = "404", description = "No job execution found"),
+            @ApiResponse(responseCode = "409", description = "Job execution is running or already completed"),
+            @ApiResponse(responseCode = "503", description = "Import queue is full, the job was not restarted") })
+    public ResponseEntity<JobExecutionDTO> restartImportCsvJob(
+            @Parameter(description = "Id of the failed or stopped job execution", required = true) @PathVariable Long executionId) throws Exception;
+
+
+    @Tag(name = "importCsvToDBJob", description = "import customer details csv to DB job")
+    @Operation(summary = "Retrieve an import job execution",
+            description = "Get the status, per step read/write/skip counts and throughput of an import job execution.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", content = { @Content(schema = @Schema(implementation = JobExecutionDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) }),
+            @ApiResponse(responseCode = "404", description = "No job execution found") })
+    public ResponseEntity<JobExecutionDTO> importCsvJobStatus(
+            @Parameter(description = "Job execution id", required = true) @PathVariable Long executionId);
+
+
+    @Tag(name = "importCsvToDBJob", description = "import customer details csv to DB job")
+    @Operation(summary = "Retrieve running import job executions",
+            description = "Get the status, per step counts and throughput of every running import job execution.")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = JobExecutionDTO.class))))
+    public ResponseEntity<List<JobExecutionDTO>> runningImportCsvJobs();
 
 
     @ApiResponse(responseCode = "201", content = {
@@ -55,6 +100,20 @@ public interface CustomerControllerImpl {
     public ResponseEntity<List<CustomerDTO>> getAllCustomers();
 
 
+    @Operation(summary = "Retrieve a page of customers", tags = {"GET"},
+            description = "Keyset pagination ordered by id. Pass nextAfterId of the response as afterId to get the next page.")
+    @ApiResponse(responseCode = "200", content = { @Content(schema = @Schema(implementation = CustomerPageDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) })
+    public ResponseEntity<CustomerPageDTO> getCustomersPage(
+            @Parameter(description = "Id of the last customer of the previous page") @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Page size, at most 1000") @RequestParam(defaultValue = "100") int size);
+
+
+    @Operation(summary = "Export all customers", tags = {"GET"},
+            description = "Streams every customer as newline delimited JSON, one customer per line.")
+    @ApiResponse(responseCode = "200", content = { @Content(schema = @Schema(implementation = CustomerDTO.class), mediaType = CustomerConstants.NDJSON_MEDIA_TYPE) })
+    public ResponseEntity<StreamingResponseBody> exportCustomers();
+
+
     @ApiResponse(responseCode = "201", content = {
             @Content(schema = @Schema(implementation = CustomerDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) })
     @Operation(
@@ -90,6 +149,17 @@ public interface CustomerControllerImpl {
     public ResponseEntity<?> findCustomerBySurname(@Parameter(explode = Explode.TRUE, name = "surname", in = ParameterIn.QUERY, description = "Customer surname", style = ParameterStyle.FORM, schema = @Schema(type = "string", defaultValue = "available", allowableValues = { "koli", "kawali", "joshi" }))
                                                    @RequestParam String surname);
 
+    @Operation(
+            summary = "Search customers by surname",
+            description = "Case-insensitive surname search, exact or by prefix, returning one page of matching customers ordered by id.",
+            tags = { "findCustomerBySurname", "GET"})
+    @ApiResponse(responseCode = "200", content = { @Content(schema = @Schema(implementation = CustomerSearchPageDTO.class), mediaType = MediaType.APPLICATION_JSON_VALUE) })
+    public ResponseEntity<CustomerSearchPageDTO> searchCustomersBySurname(
+            @Parameter(description = "Customer surname or surname prefix, case-insensitive", required = true) @RequestParam String surname,
+            @Parameter(description = "Match surnames starting with the given value") @RequestParam(defaultValue = "false") boolean prefix,
+            @Parameter(description = "Zero based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 1000") @RequestParam(defaultValue = "20") int size);
+
     @Parameters({
             @Parameter(name = "id", description = "customer id to search and update", required = true),
             @Parameter(name = "CustomerDTO", description = "Customer details to update") })
@@ -101,6 +171,22 @@ public interface CustomerControllerImpl {
     public ResponseEntity<?> updateCustomer(@PathVariable Long id, @Valid @RequestBody CustomerDTO customerDTO);
 
 
+    @Operation(summary = "Update many customers",
+            description = "Applies the given non blank fields to every customer id in one transaction, without reading the customers first. Returns one outcome per id.",
+            tags = {"updateCustomer"})
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BulkOperationResultDTO.class))))
+    public ResponseEntity<List<BulkOperationResultDTO>> bulkUpdateCustomers(
+            @Parameter(description = "Customer ids with the fields to change") @RequestBody List<CustomerDTO> customersToUpdate);
+
+
+    @Operation(summary = "Delete many customers",
+            description = "Deletes every given customer id in one transaction. Returns one outcome per id.",
+            tags = {"deleteCustomer"})
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = BulkOperationResultDTO.class))))
+    public ResponseEntity<List<BulkOperationResultDTO>> bulkDeleteCustomers(
+            @Parameter(description = "Customer ids to delete") @RequestBody List<Long> ids);
+
+
     @Operation(summary = "Delete customer by Id", description = "This api is used to delete the customer by id", tags = {
             "deleteCustomer"})
     @ApiResponses({ @ApiResponse(responseCode = "200", content = {
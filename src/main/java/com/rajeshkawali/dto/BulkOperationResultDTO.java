@@ -0,0 +1,25 @@
+package com.rajeshkawali.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk update or delete for one customer id")
+public class BulkOperationResultDTO {
+
+	@Schema(description = "customer id", example = "123133")
+	private Long id;
+
+	@Schema(description = "UPDATED, DELETED, NOT_FOUND, APPLIED (driver gave no row count) or INVALID", example = "UPDATED")
+	private String outcome;
+}
@@ -0,0 +1,28 @@
+package com.rajeshkawali.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One page of customers, ordered by id")
+public class CustomerPageDTO {
+
+	private List<CustomerDTO> customers;
+
+	@Schema(description = "Pass as afterId to get the next page, absent on the last page", example = "1000")
+	private Long nextAfterId;
+}
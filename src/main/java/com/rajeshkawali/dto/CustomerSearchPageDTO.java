@@ -0,0 +1,33 @@
+package com.rajeshkawali.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a customer surname search")
+public class CustomerSearchPageDTO {
+
+	private List<CustomerDTO> customers;
+
+	@Schema(description = "Zero based page number", example = "0")
+	private int page;
+
+	@Schema(description = "Requested page size", example = "20")
+	private int size;
+
+	private long totalElements;
+
+	private int totalPages;
+}
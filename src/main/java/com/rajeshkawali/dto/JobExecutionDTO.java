@@ -0,0 +1,42 @@
+package com.rajeshkawali.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Customer import job execution status")
+public class JobExecutionDTO {
+
+	@Schema(description = "Job execution id, used to poll the status", example = "1")
+	private Long executionId;
+
+	@Schema(description = "Job name", example = "customers-import")
+	private String jobName;
+
+	@Schema(description = "Batch status of the execution", example = "STARTED")
+	private String status;
+
+	@Schema(description = "Exit code of the execution", example = "UNKNOWN")
+	private String exitCode;
+
+	private LocalDateTime startTime;
+
+	private LocalDateTime endTime;
+
+	private List<StepExecutionDTO> steps;
+}
@@ -0,0 +1,52 @@
+package com.rajeshkawali.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Step execution counts of a customer import job")
+public class StepExecutionDTO {
+
+	@Schema(description = "Step name", example = "csvImport")
+	private String stepName;
+
+	@Schema(description = "Batch status of the step", example = "COMPLETED")
+	private String status;
+
+	private long readCount;
+
+	private long writeCount;
+
+	private long filterCount;
+
+	private long readSkipCount;
+
+	private long processSkipCount;
+
+	private long writeSkipCount;
+
+	private long commitCount;
+
+	private long rollbackCount;
+
+	@Schema(description = "Written items per second since the step started", example = "25000.0")
+	private double itemsPerSecond;
+
+	private LocalDateTime startTime;
+
+	private LocalDateTime endTime;
+}
@@ -4,14 +4,25 @@ package com.rajeshkawali.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+import java.util.Locale;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * @author Rajesh_Kawali
@@ -22,11 +33,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "CustomerInventory")
+@Table(name = "CustomerInventory", indexes = {
+		@Index(name = "idx_customer_surname", columnList = "surname"),
+		@Index(name = "idx_customer_surname_normalized", columnList = "surnameNormalized") })
 public class Customer {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(generator = "customer_id")
+	@GenericGenerator(name = "customer_id", type = CustomerIdGenerator.class, parameters = {
+			@Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = CustomerIdGenerator.SEQUENCE_NAME) })
 	@Column(name = "id")
 	private Long id;
 
@@ -36,9 +51,33 @@ public class Customer {
 	@Column(name = "surname", length = 15, nullable = false)
 	private String surname;
 
+	@Column(name = "surnameNormalized", length = 15)
+	private String surnameNormalized;
+
 	@Column(name = "smoothiePreference")
 	private String smoothiePreference;
 
 	@Column(name = "mobileNumber", length = 10)
 	private Long mobileNumber;
-}
\ No newline at end of file
+
+	/**
+	 * Line of the csv the customer was read from by the import job, reported for rejected rows.
+	 */
+	@Transient
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private Integer lineNumber;
+
+	@PrePersist
+	@PreUpdate
+	void normalize() {
+		surnameNormalized = normalizeSurname(surname);
+	}
+
+	/**
+	 * Trimmed lower case surname, used for case-insensitive and prefix search.
+	 */
+	public static String normalizeSurname(String surname) {
+		return surname == null ? null : surname.trim().toLowerCase(Locale.ROOT);
+	}
+}
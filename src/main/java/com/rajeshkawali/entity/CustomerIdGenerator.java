@@ -0,0 +1,71 @@
+package com.rajeshkawali.entity;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Pooled sequence id generator for {@link Customer}. Every sequence call reserves a block of ids,
+ * sized by the {@value #BLOCK_SIZE_SETTING} setting, so inserts don't need a round trip per id and can be batched.
+ * An id that is already set on the entity (e.g. the id column of the csv) is kept as it is.
+ * <p>
+ * Rows written with ids of their own can take ids of a block reserved before, {@link #skipIdsUpTo} drops
+ * those ids once the sequence was moved past them.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerIdGenerator extends SequenceStyleGenerator {
+
+	public static final String SEQUENCE_NAME = "customer_inventory_seq";
+	public static final String BLOCK_SIZE_SETTING = "customer.id.block-size";
+
+	private volatile long skipIdsUpTo;
+
+	/**
+	 * Generator of the customer ids of the given entity manager factory, null when the ids come from another
+	 * generator.
+	 */
+	public static CustomerIdGenerator of(EntityManagerFactory entityManagerFactory) {
+		Generator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+				.getEntityDescriptor(Customer.class).getGenerator();
+		return generator instanceof CustomerIdGenerator customerIdGenerator ? customerIdGenerator : null;
+	}
+
+	/**
+	 * Never hands out ids up to {@code id} again, the rest of the reserved block below it is skipped.
+	 */
+	public synchronized void skipIdsUpTo(long id) {
+		skipIdsUpTo = Math.max(skipIdsUpTo, id);
+	}
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+		Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+		int blockSize = ConfigurationHelper.getInt(BLOCK_SIZE_SETTING, settings, DEFAULT_INCREMENT_SIZE);
+		parameters.put(INCREMENT_PARAM, String.valueOf(blockSize));
+		super.configure(type, parameters, serviceRegistry);
+	}
+
+	@Override
+	public Object generate(SharedSessionContractImplementor session, Object object) {
+		Object id = session.getEntityPersister(null, object).getIdentifier(object, session);
+		if (id != null) {
+			return id;
+		}
+		Object generated = super.generate(session, object);
+		while (generated instanceof Number number && number.longValue() <= skipIdsUpTo) {
+			generated = super.generate(session, object);
+		}
+		return generated;
+	}
+}
@@ -0,0 +1,33 @@
+package com.rajeshkawali.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the delta import side table: the content hash of the last imported version of a customer key. The
+ * mapping declares the table for the schema, it is read and written with plain JDBC by
+ * {@code CustomerImportHashRepository}.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "CustomerImportHash")
+public class CustomerImportHash {
+
+	@Id
+	@Column(name = "customerKey")
+	private Long customerKey;
+
+	@Column(name = "contentHash", nullable = false)
+	private long contentHash;
+}
@@ -0,0 +1,16 @@
+package com.rajeshkawali.exception;
+
+/**
+ * A customer row of the import that can't be stored, such as a missing or too long name.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+public class CustomerValidationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CustomerValidationException(String message) {
+		super(message);
+	}
+}
@@ -13,6 +13,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,6 +45,12 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(getErrorsMap(errors), new HttpHeaders(), HttpStatus.NOT_FOUND);
 	}
 
+	@ExceptionHandler(ResponseStatusException.class)
+	public ResponseEntity<Map<String, List<String>>> handleResponseStatusException(ResponseStatusException ex) {
+		List<String> errors = Collections.singletonList(ex.getReason());
+		return new ResponseEntity<>(getErrorsMap(errors), new HttpHeaders(), ex.getStatusCode());
+	}
+
 	@ExceptionHandler(Exception.class)
 	public final ResponseEntity<Map<String, List<String>>> handleGeneralExceptions(Exception ex) {
 		List<String> errors = Collections.singletonList(ex.getMessage());
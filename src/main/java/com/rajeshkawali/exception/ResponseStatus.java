@@ -22,6 +22,22 @@ public class ResponseStatus {
 		return new ResponseStatusException(HttpStatus.NOT_FOUND, "No customer available with the given surname: " + name);
 	};
 
+	public static Function<Long, ResponseStatusException> jobExecutionNotFound = (id) -> {
+		return new ResponseStatusException(HttpStatus.NOT_FOUND, "No job execution available with the given Id: " + id);
+	};
+
+	public static Function<Long, ResponseStatusException> jobExecutionNotRestartable = (id) -> {
+		return new ResponseStatusException(HttpStatus.CONFLICT, "Job execution can't be restarted, it is running or completed: " + id);
+	};
+
+	public static Function<String, ResponseStatusException> invalidImportInput = (message) -> {
+		return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+	};
+
+	public static Supplier<ResponseStatusException> importRejected = () -> {
+		return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Import queue is full, try again later");
+	};
+
 	public static Supplier<ResponseStatusException> serverError = () -> {
 		throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "RunTimeException from customer service");
 	};
@@ -0,0 +1,113 @@
+package com.rajeshkawali.repository;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.item.database.support.DefaultDataFieldMaxValueIncrementerFactory;
+import org.springframework.batch.support.DatabaseType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.stereotype.Component;
+
+import com.rajeshkawali.config.DataSourceConfig;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.entity.CustomerIdGenerator;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hands out customer ids for JDBC inserts from the customer id sequence, reserving a block of ids per
+ * sequence call the same way Hibernate's pooled optimizer does. A sequence value {@code hi} reserves the
+ * ids {@code (hi - blockSize, hi]}, which keeps these ids apart from the ones Hibernate hands out. The
+ * sequence is called on the bulk connection pool, the import job being the main user.
+ * <p>
+ * The sequence incrementer is the one of the database behind the pool, looked up like Spring Batch does
+ * for its own sequences.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+@Component
+public class CustomerIdAllocator {
+
+	private static final String MAX_ID_SQL = "SELECT MAX(id) FROM customer_inventory";
+	private static final String RESTART_SQL = "ALTER SEQUENCE " + CustomerIdGenerator.SEQUENCE_NAME + " RESTART WITH ";
+
+	private final DataFieldMaxValueIncrementer idIncrementer;
+	private final JdbcTemplate jdbcTemplate;
+	private final int blockSize;
+
+	private Iterable<EntityManagerFactory> entityManagerFactories = List.of();
+	private long nextId;
+	private long blockEnd = -1;
+
+	@Autowired
+	public CustomerIdAllocator(@Qualifier(DataSourceConfig.BULK_DATA_SOURCE) DataSource dataSource,
+			@Value("${customer.id.block-size:50}") int blockSize,
+			ObjectProvider<EntityManagerFactory> entityManagerFactories) throws MetaDataAccessException {
+		this(dataSource, sequenceIncrementer(dataSource), blockSize);
+		this.entityManagerFactories = entityManagerFactories;
+	}
+
+	public CustomerIdAllocator(DataSource dataSource, DataFieldMaxValueIncrementer idIncrementer, int blockSize) {
+		this.idIncrementer = idIncrementer;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.blockSize = blockSize;
+	}
+
+	private static DataFieldMaxValueIncrementer sequenceIncrementer(DataSource dataSource) throws MetaDataAccessException {
+		return new DefaultDataFieldMaxValueIncrementerFactory(dataSource)
+				.getIncrementer(DatabaseType.fromMetaData(dataSource).name(), CustomerIdGenerator.SEQUENCE_NAME);
+	}
+
+	/**
+	 * Gives every customer without an id the next free id.
+	 */
+	public synchronized void assignIds(List<? extends Customer> customers) {
+		for (Customer customer : customers) {
+			if (customer.getId() != null) {
+				continue;
+			}
+			if (nextId > blockEnd) {
+				blockEnd = idIncrementer.nextLongValue();
+				nextId = Math.max(1, blockEnd - blockSize + 1);
+			}
+			customer.setId(nextId++);
+		}
+	}
+
+	/**
+	 * Moves the sequence past the highest stored customer id, to be called after rows were written with ids
+	 * of their own, such as the csv ids of the import. The sequence is restarted at {@code max(id) + blockSize}
+	 * when it is below, so its next block starts above the stored ids. The blocks already reserved, here and
+	 * by the {@link CustomerIdGenerator} of every entity manager factory, are dropped up to {@code max(id)}.
+	 */
+	public synchronized void advancePastStoredIds() {
+		Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+		if (maxId == null) {
+			return;
+		}
+		long minBlockEnd = maxId + blockSize;
+		long sequenceValue = idIncrementer.nextLongValue();
+		if (sequenceValue < minBlockEnd) {
+			jdbcTemplate.execute(RESTART_SQL + minBlockEnd);
+			blockEnd = -1;
+			nextId = 0;
+		} else {
+			blockEnd = sequenceValue;
+			nextId = blockEnd - blockSize + 1;
+		}
+		for (EntityManagerFactory entityManagerFactory : entityManagerFactories) {
+			CustomerIdGenerator idGenerator = CustomerIdGenerator.of(entityManagerFactory);
+			if (idGenerator != null) {
+				idGenerator.skipIdsUpTo(maxId);
+			}
+		}
+	}
+}
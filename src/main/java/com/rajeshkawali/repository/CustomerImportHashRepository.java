@@ -0,0 +1,103 @@
+package com.rajeshkawali.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.rajeshkawali.config.DataSourceConfig;
+import com.rajeshkawali.util.OffHeapLongLongMap;
+
+/**
+ * Side table of the delta import holding the content hash of the last imported version of every customer
+ * key, 16 bytes per customer. The table is mapped by {@link com.rajeshkawali.entity.CustomerImportHash} so it is part of the schema.
+ * The import job is its main user, so it runs on the bulk connection pool.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+@Repository
+public class CustomerImportHashRepository {
+
+	private static final String COUNT_SQL = "SELECT COUNT(*) FROM customer_import_hash";
+
+	private static final String SELECT_SQL = "SELECT customer_key, content_hash FROM customer_import_hash";
+
+	private static final String MERGE_SQL = "MERGE INTO customer_import_hash t "
+			+ "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) s (customer_key, content_hash) "
+			+ "ON t.customer_key = s.customer_key "
+			+ "WHEN MATCHED THEN UPDATE SET content_hash = s.content_hash "
+			+ "WHEN NOT MATCHED THEN INSERT (customer_key, content_hash) VALUES (s.customer_key, s.content_hash)";
+
+	private static final String DELETE_SQL = "DELETE FROM customer_import_hash WHERE customer_key = ?";
+
+	private static final String DELETE_ALL_SQL = "DELETE FROM customer_import_hash";
+
+	private static final int FETCH_SIZE = 10_000;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public CustomerImportHashRepository(@Qualifier(DataSourceConfig.BULK_DATA_SOURCE) DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Loads every key and hash into an off-heap map sized for the current row count.
+	 */
+	public OffHeapLongLongMap loadAll() {
+		Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+		OffHeapLongLongMap hashes = new OffHeapLongLongMap(count != null ? count : 0);
+		jdbcTemplate.query(connection -> {
+			PreparedStatement ps = connection.prepareStatement(SELECT_SQL);
+			ps.setFetchSize(FETCH_SIZE);
+			return ps;
+		}, rs -> {
+			hashes.put(rs.getLong(1), rs.getLong(2));
+		});
+		return hashes;
+	}
+
+	/**
+	 * Stores the hashes of the first {@code size} keys, as one JDBC batch.
+	 */
+	public void saveAll(long[] keys, long[] hashes, int size) {
+		if (size == 0) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(MERGE_SQL, new BatchPreparedStatementSetter() {
+
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setLong(1, keys[i]);
+				ps.setLong(2, hashes[i]);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return size;
+			}
+		});
+	}
+
+	/**
+	 * Drops the hashes of the given keys, the next delta import writes those customers again.
+	 */
+	public void deleteAll(List<Long> keys) {
+		if (!keys.isEmpty()) {
+			jdbcTemplate.batchUpdate(DELETE_SQL, keys, keys.size(), (ps, key) -> ps.setLong(1, key));
+		}
+	}
+
+	/**
+	 * Drops every hash, the next delta import writes every customer again.
+	 */
+	public void deleteAll() {
+		jdbcTemplate.update(DELETE_ALL_SQL);
+	}
+}
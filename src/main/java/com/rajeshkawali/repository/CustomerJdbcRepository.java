@@ -0,0 +1,166 @@
+package com.rajeshkawali.repository;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.entity.Customer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Set based JDBC statements on the customer_inventory table, for bulk operations and upserts that don't
+ * need the entities loaded first.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerJdbcRepository {
+
+	public static final int BATCH_SIZE = 1000;
+
+	private static final String PATCH_SQL = "UPDATE customer_inventory SET "
+			+ "first_name = COALESCE(?, first_name), "
+			+ "surname = COALESCE(?, surname), "
+			+ "surname_normalized = COALESCE(?, surname_normalized), "
+			+ "smoothie_preference = COALESCE(?, smoothie_preference), "
+			+ "mobile_number = COALESCE(?, mobile_number) "
+			+ "WHERE id = ?";
+
+	private static final String DELETE_SQL = "DELETE FROM customer_inventory WHERE id = ?";
+
+	private static final List<String> COLUMNS = List.of("id", "first_name", "surname", "surname_normalized",
+			"smoothie_preference", "mobile_number");
+
+	private static final String MERGE_SOURCE = "(VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), "
+			+ "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT)))";
+
+	private static final Map<String, String> KEY_COLUMNS = Map.of("id", "id", "firstName", "first_name",
+			"surname", "surname", "smoothiePreference", "smoothie_preference", "mobileNumber", "mobile_number");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final CustomerIdAllocator customerIdAllocator;
+
+	@Value("${customer.import.upsert.key:id}")
+	private String upsertKey;
+
+	/**
+	 * The same repository on another connection pool, such as the bulk pool of the import job.
+	 */
+	public CustomerJdbcRepository withJdbcTemplate(JdbcTemplate otherJdbcTemplate) {
+		CustomerJdbcRepository repository = new CustomerJdbcRepository(otherJdbcTemplate, customerIdAllocator);
+		repository.upsertKey = upsertKey;
+		return repository;
+	}
+
+	/**
+	 * Applies the non-null fields of every customer to the row with the same id, as JDBC batches.
+	 *
+	 * @return the update count of each customer, in the order given
+	 */
+	public int[] patchAll(List<CustomerDTO> customers) {
+		int[][] counts = jdbcTemplate.batchUpdate(PATCH_SQL, customers, BATCH_SIZE, (ps, customer) -> {
+			ps.setString(1, customer.getFirstName());
+			ps.setString(2, customer.getSurname());
+			ps.setString(3, Customer.normalizeSurname(customer.getSurname()));
+			ps.setString(4, customer.getSmoothiePreference());
+			ps.setObject(5, customer.getMobileNumber(), Types.BIGINT);
+			ps.setLong(6, customer.getId());
+		});
+		return flatten(counts, customers.size());
+	}
+
+	/**
+	 * Deletes the rows with the given ids, as JDBC batches.
+	 *
+	 * @return the delete count of each id, in the order given
+	 */
+	public int[] deleteAllById(List<Long> ids) {
+		int[][] counts = jdbcTemplate.batchUpdate(DELETE_SQL, ids, BATCH_SIZE, (ps, id) -> ps.setLong(1, id));
+		return flatten(counts, ids.size());
+	}
+
+	/**
+	 * Inserts the customers or updates the rows with the same {@code customer.import.upsert.key}, the customer
+	 * id or a natural key such as {@code surname,mobileNumber}, with one {@code MERGE} statement per customer
+	 * sent as JDBC batches. Customers without an id get one first, it is only used when the row is inserted.
+	 *
+	 * @return the merge count of each customer, in the order given
+	 */
+	public int[] upsertAll(List<? extends Customer> customers) {
+		customerIdAllocator.assignIds(customers);
+		int[][] counts = jdbcTemplate.batchUpdate(mergeSql(keyColumns(upsertKey)), customers, BATCH_SIZE,
+				(ps, customer) -> {
+					ps.setLong(1, customer.getId());
+					ps.setString(2, customer.getFirstName());
+					ps.setString(3, customer.getSurname());
+					ps.setString(4, Customer.normalizeSurname(customer.getSurname()));
+					ps.setString(5, customer.getSmoothiePreference());
+					ps.setObject(6, customer.getMobileNumber(), Types.BIGINT);
+				});
+		return flatten(counts, customers.size());
+	}
+
+	/**
+	 * Whether {@link #upsertAll} matches rows by id, otherwise updated rows keep an id that differs from the
+	 * one of the customer.
+	 */
+	public boolean isUpsertKeyedById() {
+		return keyColumns(upsertKey).equals(List.of("id"));
+	}
+
+	/**
+	 * Customer properties of a comma separated upsert key, such as {@code surname,mobileNumber}.
+	 */
+	public static List<String> keyProperties(String key) {
+		List<String> properties = Arrays.stream(key.split(",")).map(String::trim).toList();
+		for (String property : properties) {
+			if (!KEY_COLUMNS.containsKey(property)) {
+				throw new IllegalArgumentException("Unknown upsert key property: '" + property
+						+ "', expected one of " + KEY_COLUMNS.keySet());
+			}
+		}
+		return properties;
+	}
+
+	static List<String> keyColumns(String key) {
+		return keyProperties(key).stream().map(KEY_COLUMNS::get).toList();
+	}
+
+	/**
+	 * {@code MERGE} of one customer matching on the key columns. Matched rows get the other columns updated
+	 * and keep their id.
+	 */
+	static String mergeSql(List<String> keyColumns) {
+		String on = keyColumns.stream().map(column -> "t." + column + " = s." + column)
+				.collect(Collectors.joining(" AND "));
+		String update = COLUMNS.stream().filter(column -> !"id".equals(column) && !keyColumns.contains(column))
+				.map(column -> column + " = s." + column)
+				.collect(Collectors.joining(", "));
+		return "MERGE INTO customer_inventory t USING " + MERGE_SOURCE + " s (" + String.join(", ", COLUMNS) + ") "
+				+ "ON " + on + " "
+				+ (update.isEmpty() ? "" : "WHEN MATCHED THEN UPDATE SET " + update + " ")
+				+ "WHEN NOT MATCHED THEN INSERT (" + String.join(", ", COLUMNS) + ") VALUES ("
+				+ COLUMNS.stream().map(column -> "s." + column).collect(Collectors.joining(", ")) + ")";
+	}
+
+	private static int[] flatten(int[][] batches, int size) {
+		int[] counts = new int[size];
+		int index = 0;
+		for (int[] batch : batches) {
+			System.arraycopy(batch, 0, counts, index, batch.length);
+			index += batch.length;
+		}
+		return counts;
+	}
+}
@@ -1,21 +1,97 @@
 package com.rajeshkawali.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.rajeshkawali.dto.CustomerDTO;
 import com.rajeshkawali.entity.Customer;
 
 /**
+ * The {@code ...Dto...} queries project the rows straight into {@link CustomerDTO} with a constructor
+ * expression, nothing is loaded into the persistence context. They serve the read only api paths.
+ *
  * @author Rajesh_Kawali
  *
  */
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-	@Query(value = "SELECT * FROM customer_inventory c WHERE c.surname = ?1", nativeQuery = true)
-	Optional<Customer> findBySurname(String surname);
+	String DTO_SELECT = "SELECT new com.rajeshkawali.dto.CustomerDTO(c.id, c.firstName, c.surname, "
+			+ "c.smoothiePreference, c.mobileNumber) FROM Customer c";
+
+	/**
+	 * First customer with exactly this surname, surnames are not unique.
+	 */
+	Optional<Customer> findFirstBySurnameOrderByIdAsc(String surname);
+
+	/**
+	 * Case-insensitive surname search on the indexed normalised surname.
+	 */
+	Page<Customer> findBySurnameNormalized(String surnameNormalized, Pageable pageable);
+
+	/**
+	 * Surname prefix search, a {@code LIKE 'prefix%'} that can use the normalised surname index.
+	 */
+	Page<Customer> findBySurnameNormalizedStartingWith(String prefix, Pageable pageable);
+
+	/**
+	 * Keyset pagination: the customers with an id greater than {@code id}, in id order.
+	 */
+	List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+	/**
+	 * Scrolls over all customers in id order. Must be consumed inside a transaction and closed afterwards.
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("SELECT c FROM Customer c ORDER BY c.id")
+	Stream<Customer> streamAll();
+
+	@Query(DTO_SELECT)
+	List<CustomerDTO> findAllDtos();
+
+	@Query(DTO_SELECT + " WHERE c.id = :id")
+	Optional<CustomerDTO> findDtoById(@Param("id") Long id);
+
+	/**
+	 * Customers with exactly this surname in id order, a page of one gives the first of them.
+	 */
+	@Query(DTO_SELECT + " WHERE c.surname = :surname ORDER BY c.id")
+	List<CustomerDTO> findDtosBySurname(@Param("surname") String surname, Pageable pageable);
+
+	@Query(value = DTO_SELECT + " WHERE c.surnameNormalized = :surnameNormalized",
+			countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.surnameNormalized = :surnameNormalized")
+	Page<CustomerDTO> findDtosBySurnameNormalized(@Param("surnameNormalized") String surnameNormalized,
+			Pageable pageable);
+
+	/**
+	 * Surname prefix search, the prefix is escaped like for {@link #findBySurnameNormalizedStartingWith}.
+	 */
+	@Query(value = DTO_SELECT + " WHERE c.surnameNormalized LIKE ?#{escape([0])}% ESCAPE ?#{escapeCharacter()}",
+			countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.surnameNormalized LIKE ?#{escape([0])}% ESCAPE ?#{escapeCharacter()}")
+	Page<CustomerDTO> findDtosBySurnameNormalizedStartingWith(String prefix, Pageable pageable);
+
+	/**
+	 * Keyset pagination, the page size is taken from the pageable.
+	 */
+	@Query(DTO_SELECT + " WHERE c.id > :id ORDER BY c.id")
+	List<CustomerDTO> findDtosByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(DTO_SELECT + " ORDER BY c.id")
+	Stream<CustomerDTO> streamAllDtos();
 
 }
\ No newline at end of file
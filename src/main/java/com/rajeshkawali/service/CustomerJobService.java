@@ -0,0 +1,21 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.dto.JobExecutionDTO;
+
+import java.util.List;
+
+/**
+ * @author Rajesh_Kawali
+ */
+public interface CustomerJobService {
+
+    public JobExecutionDTO launchImport(String inputFile) throws Exception;
+
+    public JobExecutionDTO restartImport(Long executionId) throws Exception;
+
+    public boolean isAsyncLaunch();
+
+    public JobExecutionDTO jobExecutionById(Long executionId);
+
+    public List<JobExecutionDTO> runningImports();
+}
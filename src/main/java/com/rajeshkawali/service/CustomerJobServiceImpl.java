@@ -0,0 +1,135 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.config.CustomerInputFiles;
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.JobExecutionDTO;
+import com.rajeshkawali.util.Util;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Launches the customer import job and reports the status of its executions.
+ *
+ * @author Rajesh_Kawali
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerJobServiceImpl implements CustomerJobService {
+
+    public static final String CLASS_NAME = CustomerJobServiceImpl.class.getName();
+
+    private final JobLauncher jobLauncher;
+
+    private final JobLauncher asyncJobLauncher;
+
+    private final JobExplorer jobExplorer;
+
+    private final Job job;
+
+    @Value("${customer.import.async:true}")
+    private boolean asyncLaunch;
+
+    @Value("${customer.import.input:" + CustomerConstants.CUSTOMER_CSV_PATH + "}")
+    private String defaultInputFile;
+
+    @Value("${customer.import.base-dir:" + CustomerConstants.IMPORT_BASE_DIR + "}")
+    private String importBaseDir;
+
+    /**
+     * Runs the job on the input resolved against {@code customer.import.base-dir}, the job parameter holds the
+     * resolved path.
+     *
+     * @throws IllegalArgumentException for an input outside the base directory
+     */
+    @Override
+    public JobExecutionDTO launchImport(String inputFile) throws Exception {
+        String input = CustomerInputFiles.resolveWithin(Path.of(importBaseDir),
+                StringUtils.isBlank(inputFile) ? defaultInputFile : inputFile).toString();
+        log.debug("launchImport::Importing customers from: {}", input);
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString(CustomerConstants.INPUT_FILE_PARAMETER, input)
+                .addLong("start", System.currentTimeMillis())
+                .toJobParameters();
+        JobExecution jobExecution = run(jobParameters);
+        log.debug("launchImport::Job execution id: {}, status: {}", jobExecution.getId(),
+                jobExecution.getStatus());
+        return Util.jobExecutionToDto(jobExecution);
+    }
+
+    /**
+     * Runs the job again with the parameters of the given execution, which continues its job instance like
+     * {@code JobOperator.restart}: completed steps and partitions are not run again, the others continue from
+     * their last commit. Returns null when there is no such execution.
+     */
+    @Override
+    public JobExecutionDTO restartImport(Long executionId) throws Exception {
+        JobExecution previousExecution = jobExplorer.getJobExecution(executionId);
+        if (previousExecution == null) {
+            return null;
+        }
+        JobExecution jobExecution = run(previousExecution.getJobParameters());
+        log.debug("restartImport::Restarted execution id: {} as execution id: {}, status: {}", executionId,
+                jobExecution.getId(), jobExecution.getStatus());
+        return Util.jobExecutionToDto(jobExecution);
+    }
+
+    /**
+     * Runs the job, on the bounded launcher pool in async mode. A launch rejected by the full pool is created
+     * as a failed execution, it is reported with a {@link TaskRejectedException}.
+     */
+    private JobExecution run(JobParameters jobParameters) throws Exception {
+        JobExecution jobExecution = (asyncLaunch ? asyncJobLauncher : jobLauncher).run(job, jobParameters);
+        if (asyncLaunch && isRejected(jobExecution)) {
+            log.warn("run::Import queue is full, job execution id: {} was not started", jobExecution.getId());
+            throw new TaskRejectedException("Import queue is full, job execution " + jobExecution.getId()
+                    + " was not started");
+        }
+        return jobExecution;
+    }
+
+    private static boolean isRejected(JobExecution jobExecution) {
+        return jobExecution.getStatus() == BatchStatus.FAILED
+                && jobExecution.getExitStatus().getExitDescription().contains(TaskRejectedException.class.getName());
+    }
+
+    @Override
+    public boolean isAsyncLaunch() {
+        return asyncLaunch;
+    }
+
+    @Override
+    public JobExecutionDTO jobExecutionById(Long executionId) {
+        JobExecutionDTO jobExecutionDTO = null;
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution != null) {
+            jobExecutionDTO = Util.jobExecutionToDto(jobExecution);
+        }
+        return jobExecutionDTO;
+    }
+
+    @Override
+    public List<JobExecutionDTO> runningImports() {
+        List<JobExecutionDTO> runningImports = jobExplorer.findRunningJobExecutions(job.getName())
+                .stream()
+                .sorted(Comparator.comparing(JobExecution::getId))
+                .map(Util::jobExecutionToDto)
+                .toList();
+        return runningImports;
+    }
+}
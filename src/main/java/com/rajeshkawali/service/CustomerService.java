@@ -1,8 +1,13 @@
 package com.rajeshkawali.service;
 
+import com.rajeshkawali.dto.BulkOperationResultDTO;
 import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.CustomerPageDTO;
+import com.rajeshkawali.dto.CustomerSearchPageDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -12,6 +17,10 @@ public interface CustomerService {
 
     public List<CustomerDTO> getAllCustomers();
 
+    public CustomerPageDTO getCustomersPage(Long afterId, int size);
+
+    public long exportCustomers(OutputStream outputStream) throws IOException;
+
     public CustomerDTO addCustomer(CustomerDTO customerDto);
 
     public CustomerDTO customerById(Long id);
@@ -22,5 +31,11 @@ public interface CustomerService {
 
     public CustomerDTO findCustomerBySurname(String surname);
 
+    public List<BulkOperationResultDTO> bulkUpdateCustomers(List<CustomerDTO> customersToUpdate);
+
+    public List<BulkOperationResultDTO> bulkDeleteCustomers(List<Long> ids);
+
+    public CustomerSearchPageDTO searchCustomersBySurname(String surname, boolean prefix, int page, int size);
+
     public Integer uploadCustomers(MultipartFile file) throws Exception;
 }
\ No newline at end of file
@@ -1,180 +1,453 @@
 package com.rajeshkawali.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
-import com.opencsv.bean.HeaderColumnNameMappingStrategy;
 import com.rajeshkawali.constant.CustomerConstants;
 import com.rajeshkawali.dto.CustomerCsv;
+import com.rajeshkawali.dto.BulkOperationResultDTO;
 import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.CustomerPageDTO;
+import com.rajeshkawali.dto.CustomerSearchPageDTO;
 import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerIdAllocator;
+import com.rajeshkawali.repository.CustomerImportHashRepository;
+import com.rajeshkawali.repository.CustomerJdbcRepository;
 import com.rajeshkawali.repository.CustomerRepository;
+import com.rajeshkawali.util.CustomerCsvReader;
+import com.rajeshkawali.util.LongDuplicateFilter;
 import com.rajeshkawali.util.Util;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
+ * Every public method is timed as {@code customer.service} tagged with its method name.
+ *
  * @author Rajesh_Kawali
  */
 @Slf4j
 @Service
+@Timed(value = "customer.service", histogram = true)
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     public static final String CLASS_NAME = CustomerServiceImpl.class.getName();
 
+    private static final int MIN_CSV_LINE_BYTES = 32;
+
     private final CustomerRepository customerRepository;
 
+    private final CustomerJdbcRepository customerJdbcRepository;
+
+    private final CustomerIdAllocator customerIdAllocator;
+
+    private final CustomerImportHashRepository customerImportHashRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${customer.upload.streaming:true}")
+    private boolean streamingUpload;
+
+    @Value("${customer.upload.chunk-size:1000}")
+    private int uploadChunkSize;
+
+    @Value("${customer.upload.upsert:false}")
+    private boolean upsertUpload;
+
+    @Value("${customer.import.upsert.key:id}")
+    private String upsertKey;
+
+    @Value("${customer.import.dedup.key:none}")
+    private String dedupKey;
+
+    @Value("${customer.import.dedup.expected-rows:1000000}")
+    private long dedupExpectedRows;
+
     @Override
+    @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true)
     public Integer uploadCustomers(MultipartFile file) throws Exception {
-        String _function = ".uploadCustomers";
-        log.info(CLASS_NAME + _function + "::ENTER");
-        Set<Customer> customers = csvParser(file);
+        if (streamingUpload || upsertUpload) {
+            int uploadedCount = streamingCsvUpload(file);
+            return uploadedCount;
+        }
+        Collection<Customer> customers = csvParser(file);
         customerRepository.saveAll(customers);
-        log.info(CLASS_NAME + _function + "::EXIT");
         return customers.size();
     }
 
-    private Set<Customer> csvParser(MultipartFile file) throws Exception {
-        String _function = ".csvParser";
-        log.info(CLASS_NAME + _function + "::ENTER");
+    /**
+     * Parses the whole csv. Duplicate rows are dropped by {@code customer.import.dedup.key}, or when it is
+     * {@code none} by collecting the customers in a set.
+     */
+    private Collection<Customer> csvParser(MultipartFile file) throws Exception {
+        LongDuplicateFilter duplicates = uploadDuplicateFilter(file);
         try(Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            HeaderColumnNameMappingStrategy<CustomerCsv> strategy =
-                    new HeaderColumnNameMappingStrategy<>();
-            strategy.setType(CustomerCsv.class);
-            CsvToBean<CustomerCsv> csvToBean =
-                    new CsvToBeanBuilder<CustomerCsv>(reader)
-                            .withMappingStrategy(strategy)
-                            .withIgnoreEmptyLine(true)
-                            .withIgnoreLeadingWhiteSpace(true)
-                            .build();
-            log.info(CLASS_NAME + _function + "::EXIT");
-            return csvToBean.parse()
+            CsvToBean<CustomerCsv> csvToBean = Util.csvToBean(reader);
+            Stream<Customer> customers = csvToBean.parse()
                     .stream()
-                    .map(csvLine -> Customer.builder()
-                            .firstName(csvLine.getFirstName())
-                            .surname(csvLine.getSurname())
-                            .smoothiePreference(csvLine.getSmoothiePreference())
-                            .mobileNumber(csvLine.getMobileNumber())
-                            .build()
-                    )
-                    .collect(Collectors.toSet());
+                    .filter(csvLine -> !isDuplicate(duplicates, csvLine))
+                    .map(Util::csvToCustomer);
+            return duplicates == null ? customers.collect(Collectors.toSet()) : customers.toList();
         }
     }
 
+    /**
+     * Duplicate filter of one upload, sized for the most rows the file can hold up to
+     * {@code customer.import.dedup.expected-rows}, or null when {@code customer.import.dedup.key} is {@code none}.
+     */
+    private LongDuplicateFilter uploadDuplicateFilter(MultipartFile file) {
+        if ("none".equalsIgnoreCase(dedupKey)) {
+            return null;
+        }
+        return new LongDuplicateFilter(Math.min(file.getSize() / MIN_CSV_LINE_BYTES, dedupExpectedRows));
+    }
+
+    private boolean isDuplicate(LongDuplicateFilter duplicates, CustomerCsv csvLine) {
+        if (duplicates == null) {
+            return false;
+        }
+        Long key = Util.duplicateKey(csvLine.getId(), csvLine.getMobileNumber(), dedupKey);
+        return key != null && duplicates.isDuplicate(key);
+    }
+
+    /**
+     * Reads the csv lazily and saves it in chunks of {@code customer.upload.chunk-size} rows, each chunk in
+     * its own transaction with the persistence context cleared afterwards, so heap use doesn't grow with
+     * the file size. With {@code customer.upload.upsert} the chunks are merged by
+     * {@code customer.import.upsert.key} instead, keeping the ids of the csv. Duplicate rows are dropped
+     * by {@code customer.import.dedup.key}, rows with an id or mobile number that is not a number are skipped
+     * and logged.
+     */
+    private int streamingCsvUpload(MultipartFile file) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LongDuplicateFilter duplicates = uploadDuplicateFilter(file);
+        int uploadedCount = 0;
+        try(Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+            List<Customer> chunk = new ArrayList<>(uploadChunkSize);
+            CustomerCsvReader csvReader = new CustomerCsvReader(reader);
+            for (CustomerCsv csvLine : csvReader) {
+                if (isDuplicate(duplicates, csvLine)) {
+                    continue;
+                }
+                Customer customer = Util.csvToCustomer(csvLine);
+                if (upsertUpload) {
+                    customer.setId(csvLine.getId());
+                }
+                chunk.add(customer);
+                if (chunk.size() == uploadChunkSize) {
+                    uploadedCount += saveChunk(transactionTemplate, chunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                uploadedCount += saveChunk(transactionTemplate, chunk);
+            }
+            if (!csvReader.getSkippedLines().isEmpty()) {
+                log.warn("streamingCsvUpload::Skipped {} lines with an invalid number, lines: {}",
+                        csvReader.getSkippedLines().size(), csvReader.getSkippedLines());
+            }
+        }
+        if (upsertUpload) {
+            customerIdAllocator.advancePastStoredIds();
+            Cache customerByIdCache = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_ID_CACHE);
+            if (customerByIdCache != null) {
+                customerByIdCache.clear();
+            }
+        }
+        log.debug("streamingCsvUpload::No of customers saved: {}", uploadedCount);
+        return uploadedCount;
+    }
+
+    private int saveChunk(TransactionTemplate transactionTemplate, List<Customer> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (upsertUpload) {
+                customerJdbcRepository.upsertAll(chunk);
+                return;
+            }
+            customerRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        int savedCount = chunk.size();
+        chunk.clear();
+        return savedCount;
+    }
+
+    /**
+     * The read methods below project the rows straight into {@link CustomerDTO} in read only transactions,
+     * no customer entity is hydrated, tracked or dirty checked.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
-        String _function = ".getAllCustomers";
-        log.info(CLASS_NAME + _function + "::ENTER");
         List<CustomerDTO> customerList = new ArrayList<>();
         try {
-            customerRepository.findAll().forEach(customer -> customerList.add(Util.entityToDto(customer)));
-            log.debug(CLASS_NAME + _function + "::Response size is: {}", customerList.size());
+            customerList = customerRepository.findAllDtos();
+            log.debug("getAllCustomers::Response size is: {}", customerList.size());
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("getAllCustomers::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return customerList;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CustomerPageDTO getCustomersPage(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, CustomerConstants.MAX_PAGE_SIZE));
+        List<CustomerDTO> customerList = customerRepository.findDtosByIdGreaterThan(afterId != null ? afterId : 0L,
+                PageRequest.ofSize(pageSize));
+        Long nextAfterId = customerList.size() == pageSize ? customerList.get(pageSize - 1).getId() : null;
+        log.debug("getCustomersPage::Page size is: {}, next afterId: {}", customerList.size(), nextAfterId);
+        return CustomerPageDTO.builder().customers(customerList).nextAfterId(nextAfterId).build();
+    }
+
+    /**
+     * Writes every customer as one JSON line. Rows are scrolled from the database as DTOs, nothing is kept
+     * in the persistence context, so memory use stays constant whatever the table size.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CustomerDTO.class);
+        OutputStream out = new BufferedOutputStream(outputStream);
+        long exportedCount = 0;
+        try (Stream<CustomerDTO> customers = customerRepository.streamAllDtos()) {
+            for (CustomerDTO customer : (Iterable<CustomerDTO>) customers::iterator) {
+                out.write(writer.writeValueAsBytes(customer));
+                out.write('\n');
+                exportedCount++;
+            }
+        }
+        out.flush();
+        log.debug("exportCustomers::No of customers exported: {}", exportedCount);
+        return exportedCount;
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_ID_CACHE, key = "#customerDto.id", condition = "#customerDto.id != null"),
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, key = "#customerDto.surname", condition = "#customerDto.id == null && #customerDto.surname != null"),
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true, condition = "#customerDto.id != null") })
     public CustomerDTO addCustomer(CustomerDTO customerDto) {
-        String _function = ".addCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
         Customer customer = null;
         try {
             customer = customerRepository.save(Util.dtoToEntity(customerDto));
-            log.debug(CLASS_NAME + _function + "::Customer SuccessFully added to the DB : {}", customer);
+            log.debug("addCustomer::Customer SuccessFully added to the DB, id: {}", customer.getId());
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("addCustomer::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return Util.entityToDto(customer);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CustomerConstants.CUSTOMER_BY_ID_CACHE, key = "#id", unless = "#result == null")
     public CustomerDTO customerById(Long id) {
-        String _function = ".customerById";
-        log.info(CLASS_NAME + _function + "::ENTER");
         CustomerDTO customerDTO = null;
         try {
-            Optional<Customer> customerOptional = customerRepository.findById(id);
+            Optional<CustomerDTO> customerOptional = customerRepository.findDtoById(id);
             if (customerOptional.isPresent()) {
-                customerDTO = Util.entityToDto(customerOptional.get());
-                log.debug(CLASS_NAME + _function + "::Response is: {}", customerDTO);
+                customerDTO = customerOptional.get();
+                log.debug("customerById::Response is: {}", customerDTO);
             }
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("customerById::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return customerDTO;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, key = "#surname", unless = "#result == null")
     public CustomerDTO findCustomerBySurname(String surname) {
-        String _function = ".findCustomerBySurname";
-        log.info(CLASS_NAME + _function + "::ENTER");
         CustomerDTO customerDTO = null;
         try {
-            Optional<Customer> customerOptional = customerRepository.findBySurname(surname);
-            if (customerOptional.isPresent()) {
-                customerDTO = Util.entityToDto(customerOptional.get());
-                log.debug(CLASS_NAME + _function + "::Response is: {}", customerDTO);
+            List<CustomerDTO> customers = customerRepository.findDtosBySurname(surname, PageRequest.ofSize(1));
+            if (!customers.isEmpty()) {
+                customerDTO = customers.get(0);
+                log.debug("findCustomerBySurname::Response is: {}", customerDTO);
             }
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("findCustomerBySurname::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return customerDTO;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CustomerSearchPageDTO searchCustomersBySurname(String surname, boolean prefix, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page),
+                Math.max(1, Math.min(size, CustomerConstants.MAX_PAGE_SIZE)), Sort.by("id"));
+        String normalizedSurname = Customer.normalizeSurname(surname);
+        Page<CustomerDTO> customers = prefix
+                ? customerRepository.findDtosBySurnameNormalizedStartingWith(normalizedSurname, pageRequest)
+                : customerRepository.findDtosBySurnameNormalized(normalizedSurname, pageRequest);
+        log.debug("searchCustomersBySurname::Total customers found: {}", customers.getTotalElements());
+        return CustomerSearchPageDTO.builder()
+                .customers(customers.getContent())
+                .page(customers.getNumber())
+                .size(customers.getSize())
+                .totalElements(customers.getTotalElements())
+                .totalPages(customers.getTotalPages())
+                .build();
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_ID_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true) })
     public String deleteCustomer(Long id) {
-        String _function = ".deleteCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
         String result = null;
         try {
             CustomerDTO customerDetails = customerById(id);
             if (customerDetails != null) {
                 customerRepository.deleteById(id);
+                forgetImportHash(customerDetails);
                 result = CustomerConstants.DELETE_MESSAGE;
-                log.debug(CLASS_NAME + _function + "::Deleted status response is: {}", result);
+                log.debug("deleteCustomer::Deleted status response is: {}", result);
             }
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("deleteCustomer::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return result;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_ID_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true) })
     public CustomerDTO updateCustomer(Long id, CustomerDTO customerToUpdate) {
-        String _function = ".updateCustomer";
-        log.info(CLASS_NAME + _function + "::ENTER");
         CustomerDTO updatedCustomer = null;
         try {
             CustomerDTO customerDetails = customerById(id);
             if (customerDetails != null) {
+                forgetImportHash(customerDetails);
                 Util.createCustomerEntity(customerToUpdate, customerDetails);
                 updatedCustomer = addCustomer(customerDetails);
-                log.debug(CLASS_NAME + _function + "::Response is: {}", updatedCustomer);
+                log.debug("updateCustomer::Response is: {}", updatedCustomer);
             }
         } catch (Exception e) {
-            log.error(CLASS_NAME + _function + "::Exception occurred:" + e.getMessage());
+            log.error("updateCustomer::Exception occurred: {}", e.getMessage());
         }
-        log.info(CLASS_NAME + _function + "::EXIT");
         return updatedCustomer;
     }
 
-}
\ No newline at end of file
+    /**
+     * Applies the non blank fields of every customer to the row with the same id, as batched statements in
+     * one transaction, without reading the rows first.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true)
+    public List<BulkOperationResultDTO> bulkUpdateCustomers(List<CustomerDTO> customersToUpdate) {
+        List<CustomerDTO> patches = customersToUpdate.stream()
+                .filter(customer -> customer.getId() != null)
+                .map(Util::patchFields)
+                .toList();
+        int[] counts = customerJdbcRepository.patchAll(patches);
+        List<Long> patchedIds = patches.stream().map(CustomerDTO::getId).toList();
+        evictCustomerIds(patchedIds);
+        forgetImportHashes(patchedIds);
+        List<BulkOperationResultDTO> results = new ArrayList<>(customersToUpdate.size());
+        int index = 0;
+        for (CustomerDTO customer : customersToUpdate) {
+            String outcome = customer.getId() == null ? CustomerConstants.OUTCOME_INVALID
+                    : Util.bulkOutcome(counts[index++], CustomerConstants.OUTCOME_UPDATED);
+            results.add(BulkOperationResultDTO.builder().id(customer.getId()).outcome(outcome).build());
+        }
+        log.debug("bulkUpdateCustomers::No of customers updated: {}", patches.size());
+        return results;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CustomerConstants.CUSTOMER_BY_SURNAME_CACHE, allEntries = true)
+    public List<BulkOperationResultDTO> bulkDeleteCustomers(List<Long> ids) {
+        List<Long> validIds = ids.stream().filter(id -> id != null).toList();
+        int[] counts = customerJdbcRepository.deleteAllById(validIds);
+        evictCustomerIds(validIds);
+        forgetImportHashes(validIds);
+        List<BulkOperationResultDTO> results = new ArrayList<>(ids.size());
+        int index = 0;
+        for (Long id : ids) {
+            String outcome = id == null ? CustomerConstants.OUTCOME_INVALID
+                    : Util.bulkOutcome(counts[index++], CustomerConstants.OUTCOME_DELETED);
+            results.add(BulkOperationResultDTO.builder().id(id).outcome(outcome).build());
+        }
+        log.debug("bulkDeleteCustomers::No of ids to delete: {}", validIds.size());
+        return results;
+    }
+
+    /**
+     * Drops the delta import hash of the customer as stored before the change, otherwise the next delta
+     * import would skip its csv row as unchanged and keep the change made through the api.
+     */
+    private void forgetImportHash(CustomerDTO storedCustomer) {
+        Long key = Util.customerKey(Util.dtoToEntity(storedCustomer), CustomerJdbcRepository.keyProperties(upsertKey));
+        if (key != null) {
+            customerImportHashRepository.deleteAll(List.of(key));
+        }
+    }
+
+    /**
+     * Drops the delta import hashes of the customers with the given ids. The rows aren't loaded by the bulk
+     * operations, so unless the upsert key is the id every hash is dropped.
+     */
+    private void forgetImportHashes(List<Long> ids) {
+        if (customerJdbcRepository.isUpsertKeyedById()) {
+            customerImportHashRepository.deleteAll(ids);
+        } else if (!ids.isEmpty()) {
+            customerImportHashRepository.deleteAll();
+        }
+    }
+
+    /**
+     * Evicts the given ids from the id cache once the surrounding transaction committed.
+     */
+    private void evictCustomerIds(List<Long> ids) {
+        Cache customerByIdCache = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_ID_CACHE);
+        if (customerByIdCache != null) {
+            Cache afterCommitCache = new TransactionAwareCacheDecorator(customerByIdCache);
+            ids.forEach(afterCommitCache::evict);
+        }
+    }
+
+}
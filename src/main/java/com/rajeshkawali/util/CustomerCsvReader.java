@@ -0,0 +1,136 @@
+package com.rajeshkawali.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.rajeshkawali.dto.CustomerCsv;
+
+/**
+ * Reads an uploaded customer csv row by row into {@link CustomerCsv}, locating the columns once from the
+ * header. Replaces the reflective {@code HeaderColumnNameMappingStrategy} binding on the streaming upload path,
+ * with the same rules: header names are case-insensitive, leading white space and empty lines are ignored.
+ * <p>
+ * A row whose id or mobile number is not a number is skipped rather than failing the upload halfway, its
+ * line number is kept in {@link #getSkippedLines()}.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+public class CustomerCsvReader implements Iterable<CustomerCsv> {
+
+	private static final String[] COLUMNS = { "id", "firstName", "surname", "smoothiePreference", "mobileNumber" };
+
+	private final CSVReader csvReader;
+	private final int[] columnIndexes = new int[COLUMNS.length];
+	private final List<Long> skippedLines = new ArrayList<>();
+
+	public CustomerCsvReader(Reader reader) throws IOException {
+		this.csvReader = new CSVReader(reader);
+		String[] header = readNext();
+		for (int column = 0; column < COLUMNS.length; column++) {
+			columnIndexes[column] = indexOf(header, COLUMNS[column]);
+		}
+	}
+
+	@Override
+	public Iterator<CustomerCsv> iterator() {
+		return new Iterator<>() {
+
+			private CustomerCsv next = nextCustomerCsv();
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public CustomerCsv next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				CustomerCsv customerCsv = next;
+				next = nextCustomerCsv();
+				return customerCsv;
+			}
+		};
+	}
+
+	/**
+	 * Line numbers of the rows skipped so far because a numeric column didn't hold a number.
+	 */
+	public List<Long> getSkippedLines() {
+		return skippedLines;
+	}
+
+	private CustomerCsv nextCustomerCsv() {
+		String[] row;
+		while ((row = nextRow()) != null) {
+			try {
+				return toCustomerCsv(row);
+			} catch (NumberFormatException e) {
+				skippedLines.add(csvReader.getLinesRead());
+			}
+		}
+		return null;
+	}
+
+	private String[] nextRow() {
+		try {
+			String[] row;
+			do {
+				row = readNext();
+			} while (row != null && row.length == 1 && row[0].isBlank());
+			return row;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String[] readNext() throws IOException {
+		try {
+			return csvReader.readNext();
+		} catch (CsvValidationException e) {
+			throw new IOException("Invalid csv line " + csvReader.getLinesRead(), e);
+		}
+	}
+
+	private CustomerCsv toCustomerCsv(String[] row) {
+		return CustomerCsv.builder()
+				.id(toLong(value(row, 0)))
+				.firstName(value(row, 1))
+				.surname(value(row, 2))
+				.smoothiePreference(value(row, 3))
+				.mobileNumber(toLong(value(row, 4)))
+				.build();
+	}
+
+	private String value(String[] row, int column) {
+		int index = columnIndexes[column];
+		if (index < 0 || index >= row.length || row[index].isEmpty()) {
+			return null;
+		}
+		return row[index];
+	}
+
+	private static Long toLong(String value) {
+		return value == null ? null : Long.valueOf(value.trim());
+	}
+
+	private static int indexOf(String[] header, String column) {
+		if (header != null) {
+			for (int index = 0; index < header.length; index++) {
+				if (column.equalsIgnoreCase(header[index].trim())) {
+					return index;
+				}
+			}
+		}
+		return -1;
+	}
+}
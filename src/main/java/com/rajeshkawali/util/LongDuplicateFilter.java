@@ -0,0 +1,68 @@
+package com.rajeshkawali.util;
+
+/**
+ * Thread safe filter of duplicate {@code long} keys, backed by {@link OffHeapLongSet}s. The keys are spread
+ * over {@value #STRIPES} sets with their own lock, so the threads of a multi-threaded or partitioned import
+ * rarely wait for each other.
+ * <p>
+ * Every key takes 8 bytes off-heap in a table kept between 30% and 60% full, so about 13 to 27 bytes per
+ * distinct key, and nothing on the heap. The memory is released when the filter is garbage collected.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+public class LongDuplicateFilter {
+
+	private static final int STRIPES = 16;
+
+	private final OffHeapLongSet[] sets = new OffHeapLongSet[STRIPES];
+
+	public LongDuplicateFilter(long expectedSize) {
+		for (int i = 0; i < STRIPES; i++) {
+			sets[i] = new OffHeapLongSet(expectedSize / STRIPES);
+		}
+	}
+
+	/**
+	 * Remembers the key.
+	 *
+	 * @return whether the key was seen before
+	 */
+	public boolean isDuplicate(long key) {
+		OffHeapLongSet set = sets[stripe(key)];
+		synchronized (set) {
+			return !set.add(key);
+		}
+	}
+
+	/**
+	 * Number of distinct keys seen.
+	 */
+	public long size() {
+		long size = 0;
+		for (OffHeapLongSet set : sets) {
+			synchronized (set) {
+				size += set.size();
+			}
+		}
+		return size;
+	}
+
+	public long memoryBytes() {
+		long memoryBytes = 0;
+		for (OffHeapLongSet set : sets) {
+			synchronized (set) {
+				memoryBytes += set.memoryBytes();
+			}
+		}
+		return memoryBytes;
+	}
+
+	/**
+	 * Stripe from the top bits of a multiplicative hash, independent of the slot the set picks for the key.
+	 */
+	private static int stripe(long key) {
+		long hash = key * 0x9e3779b97f4a7c15L;
+		return (int) (hash >>> 60);
+	}
+}
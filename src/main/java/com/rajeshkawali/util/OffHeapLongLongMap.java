@@ -0,0 +1,158 @@
+package com.rajeshkawali.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open addressing hash map of primitive {@code long} keys to {@code long} values, stored in direct byte
+ * buffers outside the java heap. Every entry takes 16 bytes, the table is kept at most
+ * {@value #MAX_LOAD_PERCENT}% full, so the memory use is known up front from the expected size. Tables
+ * larger than one buffer are split in segments of {@value #SEGMENT_SLOTS} slots, which allows billions of
+ * entries.
+ * <p>
+ * Not thread safe for writes. Concurrent reads are safe once the writes are published, for instance
+ * through a volatile field.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+public class OffHeapLongLongMap {
+
+	private static final int SEGMENT_BITS = 24;
+	private static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+	private static final int SLOT_BYTES = 16;
+	private static final int MAX_LOAD_PERCENT = 60;
+	private static final long FREE_KEY = 0;
+
+	private ByteBuffer[] segments;
+	private long mask;
+	private long resizeAt;
+	private long size;
+	private boolean hasFreeKey;
+	private long freeKeyValue;
+
+	public OffHeapLongLongMap(long expectedSize) {
+		allocate(slotsFor(expectedSize));
+	}
+
+	public boolean containsKey(long key) {
+		if (key == FREE_KEY) {
+			return hasFreeKey;
+		}
+		return keyAt(find(key)) == key;
+	}
+
+	/**
+	 * Value of the key, or {@code missingValue} when the key is not in the map.
+	 */
+	public long get(long key, long missingValue) {
+		if (key == FREE_KEY) {
+			return hasFreeKey ? freeKeyValue : missingValue;
+		}
+		long slot = find(key);
+		return keyAt(slot) == key ? valueAt(slot) : missingValue;
+	}
+
+	/**
+	 * Sets the value of the key.
+	 *
+	 * @return whether the key was added, false when an existing value was replaced
+	 */
+	public boolean put(long key, long value) {
+		if (key == FREE_KEY) {
+			boolean added = !hasFreeKey;
+			hasFreeKey = true;
+			freeKeyValue = value;
+			size += added ? 1 : 0;
+			return added;
+		}
+		long slot = find(key);
+		boolean added = keyAt(slot) != key;
+		setSlot(slot, key, value);
+		if (added && ++size > resizeAt) {
+			resize();
+		}
+		return added;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Off-heap bytes held by the table.
+	 */
+	public long memoryBytes() {
+		return (mask + 1) * SLOT_BYTES;
+	}
+
+	/**
+	 * Slot holding the key, or the free slot where it belongs.
+	 */
+	private long find(long key) {
+		long slot = mix(key) & mask;
+		while (true) {
+			long current = keyAt(slot);
+			if (current == key || current == FREE_KEY) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private long keyAt(long slot) {
+		return segments[(int) (slot >>> SEGMENT_BITS)].getLong((int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES);
+	}
+
+	private long valueAt(long slot) {
+		return segments[(int) (slot >>> SEGMENT_BITS)].getLong((int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES + 8);
+	}
+
+	private void setSlot(long slot, long key, long value) {
+		ByteBuffer segment = segments[(int) (slot >>> SEGMENT_BITS)];
+		int offset = (int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES;
+		segment.putLong(offset, key);
+		segment.putLong(offset + 8, value);
+	}
+
+	private void resize() {
+		ByteBuffer[] oldSegments = segments;
+		long oldSlots = mask + 1;
+		allocate(oldSlots * 2);
+		for (long slot = 0; slot < oldSlots; slot++) {
+			ByteBuffer segment = oldSegments[(int) (slot >>> SEGMENT_BITS)];
+			int offset = (int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES;
+			long key = segment.getLong(offset);
+			if (key != FREE_KEY) {
+				setSlot(find(key), key, segment.getLong(offset + 8));
+			}
+		}
+	}
+
+	private void allocate(long slots) {
+		int segmentSlots = (int) Math.min(slots, SEGMENT_SLOTS);
+		segments = new ByteBuffer[(int) (slots / segmentSlots)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = ByteBuffer.allocateDirect(segmentSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+		}
+		mask = slots - 1;
+		resizeAt = slots * MAX_LOAD_PERCENT / 100;
+	}
+
+	private static long slotsFor(long expectedSize) {
+		long slots = Math.max(16, expectedSize * 100 / MAX_LOAD_PERCENT + 1);
+		return Long.highestOneBit(slots - 1) << 1;
+	}
+
+	/**
+	 * Murmur3 finalizer, spreads sequential ids over the table.
+	 */
+	private static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+}
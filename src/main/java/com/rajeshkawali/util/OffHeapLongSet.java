@@ -0,0 +1,136 @@
+package com.rajeshkawali.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open addressing hash set of primitive {@code long} values, stored in direct byte buffers outside the java
+ * heap. Every slot takes 8 bytes and the table is kept at most {@value #MAX_LOAD_PERCENT}% full, so a set of
+ * {@code n} values needs about {@code 8 * n / 0.6} bytes, rounded up to a power of two of slots. Tables larger
+ * than one buffer are split in segments of {@value #SEGMENT_SLOTS} slots.
+ * <p>
+ * Not thread safe, see {@link LongDuplicateFilter} for concurrent use.
+ *
+ * @author Rajesh_Kawali
+ *
+ */
+public class OffHeapLongSet {
+
+	private static final int SEGMENT_BITS = 24;
+	private static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+	private static final int SLOT_BYTES = 8;
+	private static final int MAX_LOAD_PERCENT = 60;
+	private static final long FREE_VALUE = 0;
+
+	private ByteBuffer[] segments;
+	private long mask;
+	private long resizeAt;
+	private long size;
+	private boolean hasFreeValue;
+
+	public OffHeapLongSet(long expectedSize) {
+		allocate(slotsFor(expectedSize));
+	}
+
+	public boolean contains(long value) {
+		if (value == FREE_VALUE) {
+			return hasFreeValue;
+		}
+		return valueAt(find(value)) == value;
+	}
+
+	/**
+	 * Adds the value.
+	 *
+	 * @return whether the value was added, false when it was in the set already
+	 */
+	public boolean add(long value) {
+		if (value == FREE_VALUE) {
+			boolean added = !hasFreeValue;
+			hasFreeValue = true;
+			size += added ? 1 : 0;
+			return added;
+		}
+		long slot = find(value);
+		if (valueAt(slot) == value) {
+			return false;
+		}
+		setSlot(slot, value);
+		if (++size > resizeAt) {
+			resize();
+		}
+		return true;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Off-heap bytes held by the table.
+	 */
+	public long memoryBytes() {
+		return (mask + 1) * SLOT_BYTES;
+	}
+
+	/**
+	 * Slot holding the value, or the free slot where it belongs.
+	 */
+	private long find(long value) {
+		long slot = mix(value) & mask;
+		while (true) {
+			long current = valueAt(slot);
+			if (current == value || current == FREE_VALUE) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private long valueAt(long slot) {
+		return segments[(int) (slot >>> SEGMENT_BITS)].getLong((int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES);
+	}
+
+	private void setSlot(long slot, long value) {
+		segments[(int) (slot >>> SEGMENT_BITS)].putLong((int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES, value);
+	}
+
+	private void resize() {
+		ByteBuffer[] oldSegments = segments;
+		long oldSlots = mask + 1;
+		allocate(oldSlots * 2);
+		for (long slot = 0; slot < oldSlots; slot++) {
+			long value = oldSegments[(int) (slot >>> SEGMENT_BITS)].getLong((int) (slot & (SEGMENT_SLOTS - 1)) * SLOT_BYTES);
+			if (value != FREE_VALUE) {
+				setSlot(find(value), value);
+			}
+		}
+	}
+
+	private void allocate(long slots) {
+		int segmentSlots = (int) Math.min(slots, SEGMENT_SLOTS);
+		segments = new ByteBuffer[(int) (slots / segmentSlots)];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = ByteBuffer.allocateDirect(segmentSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+		}
+		mask = slots - 1;
+		resizeAt = slots * MAX_LOAD_PERCENT / 100;
+	}
+
+	private static long slotsFor(long expectedSize) {
+		long slots = Math.max(16, expectedSize * 100 / MAX_LOAD_PERCENT + 1);
+		return Long.highestOneBit(slots - 1) << 1;
+	}
+
+	/**
+	 * Murmur3 finalizer, spreads sequential values over the table.
+	 */
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+}
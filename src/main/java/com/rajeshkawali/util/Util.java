@@ -1,9 +1,24 @@
 package com.rajeshkawali.util;
 
+import java.io.Reader;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
 import org.springframework.stereotype.Component;
 
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.CustomerCsv;
 import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.JobExecutionDTO;
+import com.rajeshkawali.dto.StepExecutionDTO;
 import com.rajeshkawali.entity.Customer;
 
 /**
@@ -13,6 +28,31 @@ import com.rajeshkawali.entity.Customer;
 @Component
 public class Util {
 
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/**
+	 * OpenCSV parser of an uploaded customer csv, mapping columns by header name.
+	 */
+	public static CsvToBean<CustomerCsv> csvToBean(Reader reader) {
+		HeaderColumnNameMappingStrategy<CustomerCsv> strategy = new HeaderColumnNameMappingStrategy<>();
+		strategy.setType(CustomerCsv.class);
+		return new CsvToBeanBuilder<CustomerCsv>(reader)
+				.withMappingStrategy(strategy)
+				.withIgnoreEmptyLine(true)
+				.withIgnoreLeadingWhiteSpace(true)
+				.build();
+	}
+
+	public static Customer csvToCustomer(CustomerCsv csvLine) {
+		return Customer.builder()
+				.firstName(csvLine.getFirstName())
+				.surname(csvLine.getSurname())
+				.smoothiePreference(csvLine.getSmoothiePreference())
+				.mobileNumber(csvLine.getMobileNumber())
+				.build();
+	}
+
 	public static CustomerDTO entityToDto(Customer customer) {
 		CustomerDTO customerDTO = new CustomerDTO();
 		if (customer != null) {
@@ -58,8 +98,144 @@ public class Util {
 		}
 	}
 
+	/**
+	 * Copy of the requested changes with blank fields set to null, i.e. left unchanged by a bulk update.
+	 */
+	public static CustomerDTO patchFields(CustomerDTO customerToUpdate) {
+		return CustomerDTO.builder()
+				.id(customerToUpdate.getId())
+				.firstName(checkEmptyNullString(customerToUpdate.getFirstName()) ? customerToUpdate.getFirstName() : null)
+				.surname(checkEmptyNullString(customerToUpdate.getSurname()) ? customerToUpdate.getSurname() : null)
+				.smoothiePreference(checkEmptyNullString(customerToUpdate.getSmoothiePreference())
+						? customerToUpdate.getSmoothiePreference() : null)
+				.mobileNumber(customerToUpdate.getMobileNumber())
+				.build();
+	}
+
+	public static String bulkOutcome(int count, String successOutcome) {
+		if (count > 0) {
+			return successOutcome;
+		}
+		return count == Statement.SUCCESS_NO_INFO ? CustomerConstants.OUTCOME_APPLIED
+				: CustomerConstants.OUTCOME_NOT_FOUND;
+	}
+
 	public static boolean checkEmptyNullString(String input) {
 		return !StringUtils.isEmpty(input) && !StringUtils.isEmpty(input.trim());
 	}
 
-}
\ No newline at end of file
+	public static JobExecutionDTO jobExecutionToDto(JobExecution jobExecution) {
+		return JobExecutionDTO.builder()
+				.executionId(jobExecution.getId())
+				.jobName(jobExecution.getJobInstance().getJobName())
+				.status(jobExecution.getStatus().name())
+				.exitCode(jobExecution.getExitStatus().getExitCode())
+				.startTime(jobExecution.getStartTime())
+				.endTime(jobExecution.getEndTime())
+				.steps(jobExecution.getStepExecutions().stream().map(Util::stepExecutionToDto).toList())
+				.build();
+	}
+
+	public static StepExecutionDTO stepExecutionToDto(StepExecution stepExecution) {
+		return StepExecutionDTO.builder()
+				.stepName(stepExecution.getStepName())
+				.status(stepExecution.getStatus().name())
+				.readCount(stepExecution.getReadCount())
+				.writeCount(stepExecution.getWriteCount())
+				.filterCount(stepExecution.getFilterCount())
+				.readSkipCount(stepExecution.getReadSkipCount())
+				.processSkipCount(stepExecution.getProcessSkipCount())
+				.writeSkipCount(stepExecution.getWriteSkipCount())
+				.commitCount(stepExecution.getCommitCount())
+				.rollbackCount(stepExecution.getRollbackCount())
+				.itemsPerSecond(itemsPerSecond(stepExecution))
+				.startTime(stepExecution.getStartTime())
+				.endTime(stepExecution.getEndTime())
+				.build();
+	}
+
+	private static double itemsPerSecond(StepExecution stepExecution) {
+		if (stepExecution.getStartTime() == null) {
+			return 0;
+		}
+		LocalDateTime endTime = stepExecution.getEndTime() != null ? stepExecution.getEndTime() : LocalDateTime.now();
+		long millis = Duration.between(stepExecution.getStartTime(), endTime).toMillis();
+		return millis > 0 ? stepExecution.getWriteCount() * 1000.0 / millis : 0;
+	}
+
+	/**
+	 * 64 bit hash of the csv fields of a customer, used by the delta import to detect unchanged rows. The id
+	 * is left out, it is either the key itself or assigned when the customer is written.
+	 */
+	public static long contentHash(Customer customer) {
+		long hash = FNV_OFFSET_BASIS;
+		hash = hash(hash, customer.getFirstName());
+		hash = hash(hash, customer.getSurname());
+		hash = hash(hash, customer.getSmoothiePreference());
+		hash = hash(hash, customer.getMobileNumber());
+		return hash;
+	}
+
+	/**
+	 * Key of a customer for the given customer properties: the id itself for {@code id}, otherwise a 64 bit
+	 * hash of the property values. Null when the customer has no id or no value for any of the properties.
+	 */
+	public static Long customerKey(Customer customer, List<String> keyProperties) {
+		if (keyProperties.size() == 1 && "id".equals(keyProperties.get(0))) {
+			return customer.getId();
+		}
+		long hash = FNV_OFFSET_BASIS;
+		for (String property : keyProperties) {
+			Object value = switch (property) {
+			case "id" -> customer.getId();
+			case "firstName" -> customer.getFirstName();
+			case "surname" -> customer.getSurname();
+			case "smoothiePreference" -> customer.getSmoothiePreference();
+			case "mobileNumber" -> customer.getMobileNumber();
+			default -> throw new IllegalArgumentException("Unknown customer key property: '" + property + "'");
+			};
+			if (value == null) {
+				return null;
+			}
+			hash = value instanceof Long number ? hash(hash, number) : hash(hash, (String) value);
+		}
+		return hash;
+	}
+
+	/**
+	 * Key of a csv row for duplicate detection, {@code keyProperty} being {@code id} or {@code mobileNumber} in
+	 * any case. Null when the row has no value for it, such rows are never duplicates.
+	 */
+	public static Long duplicateKey(Long id, Long mobileNumber, String keyProperty) {
+		if ("id".equalsIgnoreCase(keyProperty)) {
+			return id;
+		}
+		if ("mobileNumber".equalsIgnoreCase(keyProperty)) {
+			return mobileNumber;
+		}
+		throw new IllegalArgumentException("Unknown duplicate key property: '" + keyProperty + "'");
+	}
+
+	private static long hash(long hash, String value) {
+		if (value == null) {
+			return (hash ^ 0xff) * FNV_PRIME;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+		}
+		return (hash ^ 0xfe) * FNV_PRIME;
+	}
+
+	private static long hash(long hash, Long value) {
+		if (value == null) {
+			return (hash ^ 0xff) * FNV_PRIME;
+		}
+		long bits = value;
+		for (int i = 0; i < 8; i++) {
+			hash = (hash ^ (bits & 0xff)) * FNV_PRIME;
+			bits >>>= 8;
+		}
+		return hash;
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveChunkSizePolicyTest {
+
+	private static final String STEP_NAME = "customerStep";
+
+	private SimpleMeterRegistry meterRegistry;
+	private StepExecution stepExecution;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		stepExecution = new StepExecution(STEP_NAME, new JobExecution(1L));
+	}
+
+	@Test
+	void chunkCompletesAtTheSizeItStartedWith() {
+		AdaptiveChunkSizePolicy policy = policy(4, 1, 100, 1_000);
+		policy.beforeStep(stepExecution);
+
+		RepeatContext context = policy.start(new RepeatContextSupport(null));
+		for (int i = 0; i < 3; i++) {
+			policy.update(context);
+		}
+		assertThat(policy.isComplete(context)).isFalse();
+		policy.update(context);
+
+		assertThat(policy.isComplete(context)).isTrue();
+	}
+
+	@Test
+	void slowWritesHalveTheSizeDownToTheMinimum() {
+		AdaptiveChunkSizePolicy policy = policy(40, 8, 100, 0);
+		policy.beforeStep(stepExecution);
+
+		List<Integer> sizes = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			sizes.add(writeChunk(policy));
+		}
+
+		assertThat(sizes).containsExactly(40, 20, 10, 8);
+		assertThat(stepExecution.getExecutionContext().getInt(AdaptiveChunkSizePolicy.CHUNK_SIZE_KEY)).isEqualTo(8);
+		assertThat(stepExecution.getExecutionContext().getInt(AdaptiveChunkSizePolicy.CHUNK_SIZE_CHANGES_KEY))
+				.isEqualTo(3);
+	}
+
+	@Test
+	void fastWritesDoubleTheSizeUpToTheMaximumAndPublishIt() {
+		AdaptiveChunkSizePolicy policy = policy(10, 1, 30, 60_000);
+		policy.beforeStep(stepExecution);
+
+		writeChunk(policy);
+		writeChunk(policy);
+		int size = writeChunk(policy);
+
+		assertThat(size).isEqualTo(30);
+		assertThat(meterRegistry.get("customer.import.chunk.size").tag("step", STEP_NAME).gauge().value())
+				.isEqualTo(30);
+		assertThat(meterRegistry.get("customer.import.chunk.size.changes").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void restartGoesOnWithTheSavedSize() {
+		stepExecution.getExecutionContext().putInt(AdaptiveChunkSizePolicy.CHUNK_SIZE_KEY, 25);
+		AdaptiveChunkSizePolicy policy = policy(10, 1, 100, 1_000);
+
+		policy.beforeStep(stepExecution);
+
+		assertThat(chunkSize(policy)).isEqualTo(25);
+	}
+
+	@Test
+	void savedSizeIsKeptWithinTheLimits() {
+		stepExecution.getExecutionContext().putInt(AdaptiveChunkSizePolicy.CHUNK_SIZE_KEY, 500);
+		AdaptiveChunkSizePolicy policy = policy(10, 1, 100, 1_000);
+
+		policy.beforeStep(stepExecution);
+
+		assertThat(chunkSize(policy)).isEqualTo(100);
+	}
+
+	@Test
+	void failedChunkDoesNotChangeTheSize() {
+		AdaptiveChunkSizePolicy policy = policy(40, 1, 100, 0);
+		policy.beforeStep(stepExecution);
+		ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+
+		policy.beforeWrite(items(40));
+		policy.afterChunkError(chunkContext);
+		policy.afterChunk(chunkContext);
+
+		assertThat(chunkSize(policy)).isEqualTo(40);
+		assertThat(stepExecution.getExecutionContext().containsKey(AdaptiveChunkSizePolicy.CHUNK_SIZE_KEY)).isFalse();
+	}
+
+	/**
+	 * Writes one chunk of the current size.
+	 *
+	 * @return the size of the chunk written
+	 */
+	private int writeChunk(AdaptiveChunkSizePolicy policy) {
+		int size = chunkSize(policy);
+		policy.beforeWrite(items(size));
+		policy.afterChunk(new ChunkContext(new StepContext(stepExecution)));
+		return size;
+	}
+
+	private static int chunkSize(AdaptiveChunkSizePolicy policy) {
+		RepeatContext context = policy.start(new RepeatContextSupport(null));
+		int size = 0;
+		while (!policy.isComplete(context)) {
+			policy.update(context);
+			size++;
+		}
+		return size;
+	}
+
+	private AdaptiveChunkSizePolicy policy(int initialSize, int minSize, int maxSize, long targetMillis) {
+		return new AdaptiveChunkSizePolicy(initialSize, minSize, maxSize, targetMillis,
+				new CustomerStepMetricsListener(meterRegistry));
+	}
+
+	private static Chunk<Customer> items(int count) {
+		Chunk<Customer> chunk = new Chunk<>();
+		for (long id = 1; id <= count; id++) {
+			chunk.add(Customer.builder().id(id).build());
+		}
+		return chunk;
+	}
+}
@@ -0,0 +1,94 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.entity.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCacheEvictionListenerTest {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+			CustomerConstants.CUSTOMER_BY_ID_CACHE, CustomerConstants.CUSTOMER_BY_SURNAME_CACHE);
+
+	private Cache byId;
+	private Cache bySurname;
+
+	@BeforeEach
+	void setUp() {
+		byId = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_ID_CACHE);
+		bySurname = cacheManager.getCache(CustomerConstants.CUSTOMER_BY_SURNAME_CACHE);
+		byId.put(1L, "cached");
+		byId.put(2L, "cached");
+		bySurname.put("Kawali", "cached");
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void entriesAreEvictedOnlyAfterTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		new CustomerCacheEvictionListener(cacheManager, false, false).afterWrite(new Chunk<>(customer(1L, "Kawali")));
+
+		assertThat(byId.get(1L)).isNotNull();
+		assertThat(bySurname.get("Kawali")).isNotNull();
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(byId.get(1L)).isNull();
+		assertThat(byId.get(2L)).isNotNull();
+		assertThat(bySurname.get("Kawali")).isNull();
+	}
+
+	@Test
+	void rolledBackChunkEvictsNothing() {
+		TransactionSynchronizationManager.initSynchronization();
+		new CustomerCacheEvictionListener(cacheManager, false, false).afterWrite(new Chunk<>(customer(1L, "Kawali")));
+
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertThat(byId.get(1L)).isNotNull();
+		assertThat(bySurname.get("Kawali")).isNotNull();
+	}
+
+	@Test
+	void withoutTransactionEntriesAreEvictedRightAway() {
+		new CustomerCacheEvictionListener(cacheManager, true, false).afterWrite(new Chunk<>(customer(1L, "Kawali")));
+
+		assertThat(byId.get(1L)).isNull();
+		assertThat(byId.get(2L)).isNull();
+		assertThat(bySurname.get("Kawali")).isNull();
+	}
+
+	@Test
+	void upsertChangingASurnameClearsTheEntryOfTheOldSurname() {
+		bySurname.put("Joshi", "cached");
+		TransactionSynchronizationManager.initSynchronization();
+		// customer 1 was stored as Kawali, the upsert renames it
+		new CustomerCacheEvictionListener(cacheManager, false, true).afterWrite(new Chunk<>(customer(1L, "Patil")));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(bySurname.get("Kawali")).isNull();
+		assertThat(bySurname.get("Joshi")).isNull();
+		assertThat(byId.get(1L)).isNull();
+		assertThat(byId.get(2L)).isNotNull();
+	}
+
+	private static Customer customer(Long id, String surname) {
+		return Customer.builder().id(id).firstName("Rajesh").surname(surname).build();
+	}
+}
@@ -0,0 +1,33 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.util.Util;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The application starts with the default {@code customer.import.dedup.key=none} and creates no duplicate filter.
+ */
+@SpringBootTest
+class CustomerDuplicateFilterConfigTest {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Test
+	void noDuplicateFilterWithTheDefaultKey() {
+		assertThat(applicationContext.getBeanNamesForType(CustomerDuplicateFilter.class)).isEmpty();
+	}
+
+	@Test
+	void keyPropertyIgnoresTheCase() {
+		assertThat(Util.duplicateKey(1L, 9876543210L, "ID")).isEqualTo(1L);
+		assertThat(Util.duplicateKey(1L, 9876543210L, "mobilenumber")).isEqualTo(9876543210L);
+		assertThatThrownBy(() -> Util.duplicateKey(1L, 9876543210L, "email"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("email");
+	}
+}
@@ -0,0 +1,130 @@
+package com.rajeshkawali.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerFilePartitionerTest {
+
+	private static final String HEADER = "id,firstName,surname,smoothiePreference,mobileNumber\n";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void rangesStartAfterTheHeaderAndOnLineBoundaries() throws IOException {
+		Path file = writeCsv("customers.csv", 100);
+		byte[] bytes = Files.readAllBytes(file);
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(file)).partition(4);
+
+		assertThat(partitions).hasSize(4);
+		long expectedStart = HEADER.length();
+		for (ExecutionContext context : partitions.values()) {
+			long start = context.getLong(CustomerFilePartitioner.START_OFFSET);
+			long end = context.getLong(CustomerFilePartitioner.END_OFFSET);
+			assertThat(start).isEqualTo(expectedStart);
+			assertThat(bytes[(int) start - 1]).isEqualTo((byte) '\n');
+			assertThat(bytes[(int) end - 1]).isEqualTo((byte) '\n');
+			assertThat(context.getString(CustomerFilePartitioner.INPUT_FILE)).isEqualTo(file.toString());
+			expectedStart = end;
+		}
+		assertThat(expectedStart).isEqualTo(bytes.length);
+	}
+
+	@Test
+	void rangesTogetherHoldEveryLineOnce() throws IOException {
+		Path file = writeCsv("customers.csv", 37);
+		String content = Files.readString(file);
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(file)).partition(5);
+
+		List<String> lines = new ArrayList<>();
+		for (ExecutionContext context : partitions.values()) {
+			String range = content.substring((int) context.getLong(CustomerFilePartitioner.START_OFFSET),
+					(int) context.getLong(CustomerFilePartitioner.END_OFFSET));
+			lines.addAll(range.lines().toList());
+		}
+		assertThat(lines).containsExactlyElementsOf(content.lines().skip(1).toList());
+	}
+
+	@Test
+	void lastLineWithoutLineBreakEndsTheLastRange() throws IOException {
+		Path file = directory.resolve("customers.csv");
+		Files.writeString(file, HEADER + "1,Rajesh,Kawali,Mango,9876543210\n2,Ravi,Joshi,Apple,9876543211");
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(file)).partition(2);
+
+		ExecutionContext last = List.copyOf(partitions.values()).get(partitions.size() - 1);
+		assertThat(last.getLong(CustomerFilePartitioner.END_OFFSET)).isEqualTo(Files.size(file));
+	}
+
+	@Test
+	void moreRangesThanLinesGiveOneRangePerLine() throws IOException {
+		Path file = writeCsv("customers.csv", 3);
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(file)).partition(50);
+
+		assertThat(partitions).hasSizeLessThanOrEqualTo(3);
+		for (ExecutionContext context : partitions.values()) {
+			assertThat(context.getLong(CustomerFilePartitioner.END_OFFSET))
+					.isGreaterThan(context.getLong(CustomerFilePartitioner.START_OFFSET));
+		}
+	}
+
+	@Test
+	void headerOnlyFileHasNoRange() throws IOException {
+		Path file = directory.resolve("customers.csv");
+		Files.writeString(file, HEADER);
+
+		assertThat(new CustomerFilePartitioner(List.of(file)).partition(4)).isEmpty();
+	}
+
+	@Test
+	void severalFilesArePartitionedPerFile() throws IOException {
+		Path first = writeCsv("customers-1.csv", 10);
+		Path second = writeCsv("customers-2.csv", 10);
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(first, second)).partition(4);
+
+		assertThat(partitions).hasSize(2);
+		assertThat(partitions.values()).extracting(context -> context.getString(CustomerFilePartitioner.INPUT_FILE))
+				.containsExactly(first.toString(), second.toString());
+		assertThat(partitions.values()).allSatisfy(context -> {
+			assertThat(context.getLong(CustomerFilePartitioner.START_OFFSET)).isZero();
+			assertThat(context.getLong(CustomerFilePartitioner.END_OFFSET)).isEqualTo(-1);
+		});
+	}
+
+	@Test
+	void compressedFileIsOnePartition() throws IOException {
+		Path file = directory.resolve("customers.csv.gz");
+		Files.write(file, new byte[] { 0x1f, (byte) 0x8b });
+
+		Map<String, ExecutionContext> partitions = new CustomerFilePartitioner(List.of(file)).partition(4);
+
+		assertThat(partitions).hasSize(1);
+		assertThat(partitions.values().iterator().next().getLong(CustomerFilePartitioner.END_OFFSET)).isEqualTo(-1);
+	}
+
+	private Path writeCsv(String name, int rows) throws IOException {
+		StringBuilder csv = new StringBuilder(HEADER);
+		for (int row = 1; row <= rows; row++) {
+			csv.append(row).append(",First").append(row).append(",Surname").append(row % 7)
+					.append(",Mango,98765").append(String.format("%05d", row)).append('\n');
+		}
+		Path file = directory.resolve(name);
+		Files.writeString(file, csv, StandardCharsets.UTF_8);
+		return file;
+	}
+}
@@ -0,0 +1,61 @@
+package com.rajeshkawali.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerInputFilesTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void relativeLocationIsResolvedAgainstTheBaseDirectory() throws Exception {
+		Path base = Files.createDirectory(directory.resolve("imports"));
+
+		assertThat(CustomerInputFiles.resolveWithin(base, "drops/./customers.csv"))
+				.isEqualTo(base.resolve("drops/customers.csv"));
+		assertThat(CustomerInputFiles.resolveWithin(base, "drops/../customers-*.csv"))
+				.isEqualTo(base.resolve("customers-*.csv"));
+		assertThat(CustomerInputFiles.resolveWithin(base, ".")).isEqualTo(base);
+	}
+
+	@Test
+	void parentSegmentsEscapingTheBaseDirectoryAreRejected() throws Exception {
+		Path base = Files.createDirectory(directory.resolve("imports"));
+
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, "../secrets.csv"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("outside the import directory");
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, "drops/../../*.csv"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, ".."))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void absoluteLocationIsAcceptedOnlyInsideTheBaseDirectory() throws Exception {
+		Path base = Files.createDirectory(directory.resolve("imports"));
+
+		assertThat(CustomerInputFiles.resolveWithin(base, base.resolve("customers.csv").toString()))
+				.isEqualTo(base.resolve("customers.csv"));
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, "/etc/passwd"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, directory.resolve("imports-old").toString()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void symbolicLinkLeavingTheBaseDirectoryIsRejected() throws Exception {
+		Path base = Files.createDirectory(directory.resolve("imports"));
+		Path outside = Files.writeString(directory.resolve("outside.csv"), "id\n");
+		Files.createSymbolicLink(base.resolve("link.csv"), outside);
+
+		assertThatThrownBy(() -> CustomerInputFiles.resolveWithin(base, "link.csv"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
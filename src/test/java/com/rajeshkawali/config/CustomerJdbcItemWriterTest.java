@@ -0,0 +1,111 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.entity.CustomerIdGenerator;
+import com.rajeshkawali.repository.CustomerIdAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerJdbcItemWriterTest {
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private CustomerIdAllocator idAllocator;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:customer-inventory.sql").build();
+		jdbcTemplate = new JdbcTemplate(database);
+		idAllocator = new CustomerIdAllocator(database,
+				new H2SequenceMaxValueIncrementer(database, CustomerIdGenerator.SEQUENCE_NAME), 50);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void batchModeInsertsEveryRowWithTheNormalizedSurname() {
+		CustomerJdbcItemWriter writer = new CustomerJdbcItemWriter(jdbcTemplate, idAllocator, CustomerJdbcItemWriter.Mode.BATCH, 100);
+
+		writer.write(new Chunk<>(customers(1, 3)));
+
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM customer_inventory ORDER BY id", Long.class))
+				.containsExactly(1L, 2L, 3L);
+		assertThat(jdbcTemplate.queryForObject("SELECT surname_normalized FROM customer_inventory WHERE id = 2", String.class))
+				.isEqualTo("kawali2");
+	}
+
+	@Test
+	void multiRowModeWritesFullStatementsAndTheRemainder() {
+		CustomerJdbcItemWriter writer = new CustomerJdbcItemWriter(jdbcTemplate, idAllocator, CustomerJdbcItemWriter.Mode.MULTI_ROW, 2);
+
+		writer.write(new Chunk<>(customers(1, 5)));
+
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM customer_inventory ORDER BY id", Long.class))
+				.containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(jdbcTemplate.queryForObject("SELECT mobile_number FROM customer_inventory WHERE id = 5", Long.class))
+				.isEqualTo(9876543205L);
+	}
+
+	@Test
+	void nullMobileNumberIsStoredAsNull() {
+		CustomerJdbcItemWriter writer = new CustomerJdbcItemWriter(jdbcTemplate, idAllocator, CustomerJdbcItemWriter.Mode.BATCH, 100);
+		List<Customer> customers = customers(1, 1);
+		customers.get(0).setMobileNumber(null);
+
+		writer.write(new Chunk<>(customers));
+
+		assertThat(jdbcTemplate.queryForObject("SELECT mobile_number FROM customer_inventory WHERE id = 1", Long.class))
+				.isNull();
+	}
+
+	@Test
+	void customersWithoutIdGetIdsFromTheSequence() {
+		CustomerJdbcItemWriter writer = new CustomerJdbcItemWriter(jdbcTemplate, idAllocator, CustomerJdbcItemWriter.Mode.MULTI_ROW, 10);
+		List<Customer> customers = customers(1, 3);
+		customers.forEach(customer -> customer.setId(null));
+
+		writer.write(new Chunk<>(customers));
+
+		assertThat(customers).extracting(Customer::getId).doesNotContainNull().doesNotHaveDuplicates();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_inventory", Integer.class)).isEqualTo(3);
+	}
+
+	@Test
+	void emptyChunkWritesNothing() {
+		CustomerJdbcItemWriter writer = new CustomerJdbcItemWriter(jdbcTemplate, idAllocator, CustomerJdbcItemWriter.Mode.BATCH, 100);
+
+		writer.write(new Chunk<>());
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_inventory", Integer.class)).isZero();
+	}
+
+	static List<Customer> customers(long firstId, int count) {
+		List<Customer> customers = new ArrayList<>(count);
+		for (long id = firstId; id < firstId + count; id++) {
+			customers.add(Customer.builder()
+					.id(id)
+					.firstName("Rajesh" + id)
+					.surname(" Kawali" + id + " ")
+					.smoothiePreference("Mango")
+					.mobileNumber(9876543200L + id)
+					.build());
+		}
+		return customers;
+	}
+}
@@ -0,0 +1,72 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerLineMapperTest {
+
+	private final CustomerLineMapper lineMapper = new CustomerLineMapper();
+
+	@Test
+	void plainLineMapsEveryColumn() throws Exception {
+		Customer customer = lineMapper.mapLine("7,Rajesh,Kawali,Mango,9876543210", 3);
+
+		assertThat(customer.getId()).isEqualTo(7L);
+		assertThat(customer.getFirstName()).isEqualTo("Rajesh");
+		assertThat(customer.getSurname()).isEqualTo("Kawali");
+		assertThat(customer.getSmoothiePreference()).isEqualTo("Mango");
+		assertThat(customer.getMobileNumber()).isEqualTo(9876543210L);
+		assertThat(customer.getLineNumber()).isEqualTo(3);
+	}
+
+	@Test
+	void numbersAreTrimmedAndEmptyNumbersAreNull() throws Exception {
+		Customer customer = lineMapper.mapLine(" 7 ,Rajesh,Kawali,Mango,  ", 1);
+
+		assertThat(customer.getId()).isEqualTo(7L);
+		assertThat(customer.getMobileNumber()).isNull();
+	}
+
+	@Test
+	void missingTrailingColumnsAreNullAndExtraColumnsAreIgnored() throws Exception {
+		Customer shortLine = lineMapper.mapLine("7,Rajesh", 1);
+		Customer longLine = lineMapper.mapLine("7,Rajesh,Kawali,Mango,9876543210,extra,columns", 2);
+
+		assertThat(shortLine.getFirstName()).isEqualTo("Rajesh");
+		assertThat(shortLine.getSurname()).isNull();
+		assertThat(shortLine.getMobileNumber()).isNull();
+		assertThat(longLine.getMobileNumber()).isEqualTo(9876543210L);
+	}
+
+	@Test
+	void quotedFieldsAreTokenizedLikeBefore() throws Exception {
+		Customer customer = lineMapper.mapLine("7,\"Rajesh, Jr\",Kawali,\"Mango\",9876543210", 4);
+
+		assertThat(customer.getFirstName()).isEqualTo("Rajesh, Jr");
+		assertThat(customer.getSmoothiePreference()).isEqualTo("Mango");
+		assertThat(customer.getMobileNumber()).isEqualTo(9876543210L);
+		assertThat(customer.getLineNumber()).isEqualTo(4);
+	}
+
+	@Test
+	void signedAndNineteenDigitNumbersAreParsed() {
+		assertThat(CustomerLineMapper.parseLong("-42", 0, 3, "id")).isEqualTo(-42L);
+		assertThat(CustomerLineMapper.parseLong("+42", 0, 3, "id")).isEqualTo(42L);
+		assertThat(CustomerLineMapper.parseLong("9223372036854775807", 0, 19, "id")).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void invalidNumbersAreRejected() {
+		assertThatThrownBy(() -> lineMapper.mapLine("7a,Rajesh,Kawali,Mango,9876543210", 1))
+				.isInstanceOf(NumberFormatException.class).hasMessageContaining("id");
+		assertThatThrownBy(() -> lineMapper.mapLine("7,Rajesh,Kawali,Mango,98765-43210", 1))
+				.isInstanceOf(NumberFormatException.class).hasMessageContaining("mobileNumber");
+		assertThatThrownBy(() -> CustomerLineMapper.parseLong("99999999999999999999", 0, 20, "id"))
+				.isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> CustomerLineMapper.parseLong("-", 0, 1, "id"))
+				.isInstanceOf(NumberFormatException.class);
+	}
+}
@@ -0,0 +1,71 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.exception.CustomerValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerProcessorTest {
+
+	@Test
+	void namesAreOnlyTrimmedByDefault() throws Exception {
+		CustomerProcessor processor = new CustomerProcessor(91, false, null, null);
+
+		Customer customer = processor.process(customer("  RAJESH ", "mcdonald ", " MANGO", 9876543210L));
+
+		assertThat(customer.getFirstName()).isEqualTo("RAJESH");
+		assertThat(customer.getSurname()).isEqualTo("mcdonald");
+		assertThat(customer.getSmoothiePreference()).isEqualTo("MANGO");
+	}
+
+	@Test
+	void singleCaseNamesAreCapitalizedWhenEnabled() throws Exception {
+		CustomerProcessor processor = new CustomerProcessor(91, true, null, null);
+
+		Customer customer = processor.process(customer(" RAJESH", "o'brien", "McMango", 9876543210L));
+
+		assertThat(customer.getFirstName()).isEqualTo("Rajesh");
+		assertThat(customer.getSurname()).isEqualTo("O'Brien");
+		assertThat(customer.getSmoothiePreference()).isEqualTo("McMango");
+	}
+
+	@Test
+	void countryCodeIsRemovedFromLongMobileNumbers() throws Exception {
+		CustomerProcessor processor = new CustomerProcessor(91, false, null, null);
+
+		assertThat(processor.process(customer("Rajesh", "Kawali", "Mango", 919876543210L)).getMobileNumber())
+				.isEqualTo(9876543210L);
+		assertThat(processor.process(customer("Rajesh", "Kawali", "Mango", 9876543210L)).getMobileNumber())
+				.isEqualTo(9876543210L);
+	}
+
+	@Test
+	void invalidCustomerIsRejectedByTheValidatorAfterNormalizing() {
+		CustomerProcessor processor = new CustomerProcessor(0, false, null, null);
+
+		assertThatThrownBy(() -> processor.process(customer("Rajesh", "Kawali", "Mango", 919876543210L)))
+				.isInstanceOf(CustomerValidationException.class).hasMessageStartingWith("mobileNumber:");
+		assertThatThrownBy(() -> processor.process(customer("   ", "Kawali", "Mango", 9876543210L)))
+				.isInstanceOf(CustomerValidationException.class).hasMessageStartingWith("firstName:");
+	}
+
+	@Test
+	void customersAreKeptWithoutFilters() {
+		CustomerProcessor processor = new CustomerProcessor(91, false, null, null);
+		Customer customer = customer("Rajesh", "Kawali", "Mango", 9876543210L);
+
+		assertThat(processor.filter(customer)).isSameAs(customer);
+	}
+
+	private static Customer customer(String firstName, String surname, String smoothiePreference,
+			Long mobileNumber) {
+		return Customer.builder()
+				.firstName(firstName)
+				.surname(surname)
+				.smoothiePreference(smoothiePreference)
+				.mobileNumber(mobileNumber)
+				.build();
+	}
+}
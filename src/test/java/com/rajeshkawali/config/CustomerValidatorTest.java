@@ -0,0 +1,58 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.exception.CustomerValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerValidatorTest {
+
+	private final CustomerValidator validator = new CustomerValidator();
+
+	@Test
+	void validCustomerPasses() {
+		assertThatCode(() -> validator.validate(customer("Rajesh", "Kawali", "Mango", 9876543210L)))
+				.doesNotThrowAnyException();
+	}
+
+	@Test
+	void blankFirstNameIsRejectedWithTheDtoMessage() {
+		assertThatThrownBy(() -> validator.validate(customer(" ", "Kawali", "Mango", 9876543210L)))
+				.isInstanceOf(CustomerValidationException.class)
+				.hasMessageStartingWith("firstName: First name shouldn't be null or empty");
+	}
+
+	@Test
+	void missingAndEmptySurnamesAreRejected() {
+		assertThatThrownBy(() -> validator.validate(customer("Rajesh", null, "Mango", 9876543210L)))
+				.isInstanceOf(CustomerValidationException.class).hasMessageStartingWith("surname:");
+		assertThatThrownBy(() -> validator.validate(customer("Rajesh", "", "Mango", 9876543210L)))
+				.isInstanceOf(CustomerValidationException.class).hasMessageStartingWith("surname:");
+	}
+
+	@Test
+	void nameLongerThanItsColumnIsRejected() {
+		assertThatThrownBy(() -> validator.validate(customer("Rajesh", "Kawali-Deshpande", "Mango", 9876543210L)))
+				.isInstanceOf(CustomerValidationException.class)
+				.hasMessage("surname: longer than 15 characters ('Kawali-Deshpande')");
+	}
+
+	@Test
+	void mobileNumberWithMoreThanTenDigitsIsRejected() {
+		assertThatThrownBy(() -> validator.validate(customer("Rajesh", "Kawali", "Mango", 919876543210L)))
+				.isInstanceOf(CustomerValidationException.class)
+				.hasMessageStartingWith("mobileNumber: Invalid mobile number");
+	}
+
+	private static Customer customer(String firstName, String surname, String smoothiePreference,
+			Long mobileNumber) {
+		return Customer.builder()
+				.firstName(firstName)
+				.surname(surname)
+				.smoothiePreference(smoothiePreference)
+				.mobileNumber(mobileNumber)
+				.build();
+	}
+}
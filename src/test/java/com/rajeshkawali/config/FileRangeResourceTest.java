@@ -0,0 +1,66 @@
+package com.rajeshkawali.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileRangeResourceTest {
+
+	private static final String CONTENT = "header\nline1\nline2\nline3\n";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void streamHoldsOnlyTheRange() throws IOException {
+		FileRangeResource resource = new FileRangeResource(write().toString(), 7, 19);
+
+		try (InputStream in = resource.getInputStream()) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("line1\nline2\n");
+		}
+		assertThat(resource.contentLength()).isEqualTo(12);
+	}
+
+	@Test
+	void singleByteReadsStopAtTheEndOfTheRange() throws IOException {
+		FileRangeResource resource = new FileRangeResource(write().toString(), 7, 9);
+
+		try (InputStream in = resource.getInputStream()) {
+			assertThat(in.read()).isEqualTo('l');
+			assertThat(in.read()).isEqualTo('i');
+			assertThat(in.read()).isEqualTo(-1);
+		}
+	}
+
+	@Test
+	void skipStopsAtTheEndOfTheRange() throws IOException {
+		FileRangeResource resource = new FileRangeResource(write().toString(), 7, 13);
+
+		try (InputStream in = resource.getInputStream()) {
+			assertThat(in.skip(100)).isEqualTo(6);
+			assertThat(in.read()).isEqualTo(-1);
+		}
+	}
+
+	@Test
+	void rangesOfTheSameFileAreEqualOnlyWithTheSameBounds() throws IOException {
+		String path = write().toString();
+
+		assertThat(new FileRangeResource(path, 7, 13)).isEqualTo(new FileRangeResource(path, 7, 13))
+				.hasSameHashCodeAs(new FileRangeResource(path, 7, 13))
+				.isNotEqualTo(new FileRangeResource(path, 7, 19));
+	}
+
+	private Path write() throws IOException {
+		Path file = directory.resolve("customers.csv");
+		Files.writeString(file, CONTENT);
+		return file;
+	}
+}
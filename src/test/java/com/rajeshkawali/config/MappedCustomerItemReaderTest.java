@@ -0,0 +1,163 @@
+package com.rajeshkawali.config;
+
+import com.rajeshkawali.entity.Customer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedCustomerItemReaderTest {
+
+	private static final String HEADER = "id,firstName,surname,smoothiePreference,mobileNumber\n";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsEveryLineAfterTheHeader() throws Exception {
+		Path file = write(HEADER + "1,Rajesh,Kawali,Mango,9876543210\n2,Ravi,Joshi,Apple,9876543211\n");
+
+		List<Customer> customers = readAll(new MappedCustomerItemReader(file), new ExecutionContext());
+
+		assertThat(customers).extracting(Customer::getId).containsExactly(1L, 2L);
+		assertThat(customers.get(0).getFirstName()).isEqualTo("Rajesh");
+		assertThat(customers.get(0).getSurname()).isEqualTo("Kawali");
+		assertThat(customers.get(0).getSmoothiePreference()).isEqualTo("Mango");
+		assertThat(customers.get(1).getMobileNumber()).isEqualTo(9876543211L);
+		assertThat(customers).extracting(Customer::getLineNumber).containsExactly(2, 3);
+	}
+
+	@Test
+	void carriageReturnsEmptyLinesAndAMissingLastLineBreakAreHandled() throws Exception {
+		Path file = write(HEADER + "1,Rajesh,Kawali,Mango,9876543210\r\n\r\n\n2,Ravi,Joshi,Apple,");
+
+		List<Customer> customers = readAll(new MappedCustomerItemReader(file), new ExecutionContext());
+
+		assertThat(customers).extracting(Customer::getId).containsExactly(1L, 2L);
+		assertThat(customers.get(0).getMobileNumber()).isEqualTo(9876543210L);
+		assertThat(customers.get(1).getMobileNumber()).isNull();
+		assertThat(customers.get(1).getLineNumber()).isEqualTo(5);
+	}
+
+	@Test
+	void quotedLinesAreMappedWithTheTokenizer() throws Exception {
+		Path file = write(HEADER + "1,\"Rajesh, Jr\",Kawali,Mango,9876543210\n");
+
+		List<Customer> customers = readAll(new MappedCustomerItemReader(file), new ExecutionContext());
+
+		assertThat(customers).singleElement().satisfies(customer -> {
+			assertThat(customer.getFirstName()).isEqualTo("Rajesh, Jr");
+			assertThat(customer.getMobileNumber()).isEqualTo(9876543210L);
+		});
+	}
+
+	@Test
+	void textColumnsAreDecodedAsUtf8() throws Exception {
+		Path file = write(HEADER + "1,Zoë,Müller,Açaí,9876543210\n");
+
+		List<Customer> customers = readAll(new MappedCustomerItemReader(file), new ExecutionContext());
+
+		assertThat(customers.get(0).getFirstName()).isEqualTo("Zoë");
+		assertThat(customers.get(0).getSmoothiePreference()).isEqualTo("Açaí");
+	}
+
+	@Test
+	void rangeReaderReadsOnlyItsBytes() throws Exception {
+		String first = "1,Rajesh,Kawali,Mango,9876543210\n";
+		String second = "2,Ravi,Joshi,Apple,9876543211\n";
+		Path file = write(HEADER + first + second + "3,Asha,Rao,Kiwi,9876543212\n");
+		long start = HEADER.length() + first.length();
+
+		List<Customer> customers = readAll(
+				new MappedCustomerItemReader(file, start, start + second.length(), false), new ExecutionContext());
+
+		assertThat(customers).extracting(Customer::getId).containsExactly(2L);
+	}
+
+	@Test
+	void restartContinuesFromTheSavedOffset() throws Exception {
+		Path file = write(HEADER + "1,Rajesh,Kawali,Mango,1\n2,Ravi,Joshi,Apple,2\n3,Asha,Rao,Kiwi,3\n");
+		ExecutionContext executionContext = new ExecutionContext();
+		MappedCustomerItemReader reader = new MappedCustomerItemReader(file);
+		reader.open(executionContext);
+		reader.read();
+		reader.read();
+		reader.update(executionContext);
+		reader.close();
+
+		List<Customer> customers = readAll(new MappedCustomerItemReader(file), executionContext);
+
+		assertThat(customers).extracting(Customer::getId).containsExactly(3L);
+		assertThat(customers.get(0).getLineNumber()).isEqualTo(4);
+	}
+
+	@Test
+	void readerWithoutSavedStateIgnoresAndWritesNoOffset() throws Exception {
+		Path file = write(HEADER + "1,Rajesh,Kawali,Mango,1\n2,Ravi,Joshi,Apple,2\n");
+		ExecutionContext executionContext = new ExecutionContext();
+		MappedCustomerItemReader savingReader = new MappedCustomerItemReader(file);
+		savingReader.open(executionContext);
+		savingReader.read();
+		savingReader.update(executionContext);
+		savingReader.close();
+
+		MappedCustomerItemReader reader = new MappedCustomerItemReader(file);
+		reader.setSaveState(false);
+		ExecutionContext freshContext = new ExecutionContext();
+		List<Customer> customers = readAll(reader, executionContext);
+		reader.update(freshContext);
+
+		assertThat(customers).extracting(Customer::getId).containsExactly(1L, 2L);
+		assertThat(freshContext.isEmpty()).isTrue();
+	}
+
+	@Test
+	void invalidNumberFailsWithTheLineNumber() throws Exception {
+		Path file = write(HEADER + "1,Rajesh,Kawali,Mango,1\nx,Ravi,Joshi,Apple,2\n");
+		MappedCustomerItemReader reader = new MappedCustomerItemReader(file);
+		reader.open(new ExecutionContext());
+		reader.read();
+
+		assertThatThrownBy(reader::read).isInstanceOfSatisfying(FlatFileParseException.class,
+				e -> assertThat(e.getLineNumber()).isEqualTo(3));
+		reader.close();
+	}
+
+	@Test
+	void headerOnlyFileHasNoItems() throws Exception {
+		Path file = write(HEADER);
+
+		assertThat(readAll(new MappedCustomerItemReader(file), new ExecutionContext())).isEmpty();
+	}
+
+	private static List<Customer> readAll(MappedCustomerItemReader reader, ExecutionContext executionContext)
+			throws Exception {
+		List<Customer> customers = new ArrayList<>();
+		reader.open(executionContext);
+		try {
+			Customer customer;
+			while ((customer = reader.read()) != null) {
+				customers.add(customer);
+			}
+		} finally {
+			reader.close();
+		}
+		return customers;
+	}
+
+	private Path write(String content) throws IOException {
+		Path file = directory.resolve("customers.csv");
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+}
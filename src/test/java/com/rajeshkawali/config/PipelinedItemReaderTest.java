@@ -0,0 +1,207 @@
+package com.rajeshkawali.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelinedItemReaderTest {
+
+	private static final int ROWS = 20;
+
+	private final SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("pipeline-test-");
+
+	@Test
+	void itemsAndResultsComeInReadOrderWhateverBatchFinishesFirst() throws Exception {
+		List<Integer> orderedCalls = Collections.synchronizedList(new ArrayList<>());
+		Set<Integer> seenKeys = new HashSet<>();
+		ItemProcessor<Row, String> slowFirstBatches = row -> {
+			Thread.sleep(row.number() < 6 ? 50 : 0);
+			return "row" + row.number();
+		};
+		ItemProcessor<String, String> firstOfEachKey = output -> {
+			int number = Integer.parseInt(output.substring(3));
+			orderedCalls.add(number);
+			return seenKeys.add(number % 5) ? output : null;
+		};
+		PipelinedItemReader<Row, String> reader = reader(slowFirstBatches, firstOfEachKey, 3);
+		reader.open(new ExecutionContext());
+
+		List<Integer> readNumbers = new ArrayList<>();
+		List<String> results = new ArrayList<>();
+		Row row;
+		while ((row = reader.read()) != null) {
+			readNumbers.add(row.number());
+			results.add(reader.process(row));
+		}
+		reader.close();
+
+		assertThat(readNumbers).isEqualTo(range(0, ROWS));
+		assertThat(orderedCalls).isEqualTo(range(0, ROWS));
+		assertThat(results.subList(0, 5)).containsExactly("row0", "row1", "row2", "row3", "row4");
+		assertThat(results.subList(5, ROWS)).containsOnlyNulls();
+	}
+
+	@Test
+	void processorExceptionIsThrownForItsItemOnly() throws Exception {
+		IllegalArgumentException failure = new IllegalArgumentException("invalid row");
+		PipelinedItemReader<Row, String> reader = reader(row -> {
+			if (row.number() == 1) {
+				throw failure;
+			}
+			return "row" + row.number();
+		}, null, 4);
+		reader.open(new ExecutionContext());
+
+		Row first = reader.read();
+		Row second = reader.read();
+		Row third = reader.read();
+
+		assertThat(reader.process(first)).isEqualTo("row0");
+		assertThatThrownBy(() -> reader.process(second)).isSameAs(failure);
+		assertThat(reader.process(third)).isEqualTo("row2");
+		reader.close();
+	}
+
+	@Test
+	void restartContinuesAfterTheLastItemHandedOut() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		PipelinedItemReader<Row, String> reader = reader(row -> "row" + row.number(), null, 3);
+		reader.open(executionContext);
+		for (int i = 0; i < 5; i++) {
+			reader.read();
+		}
+		reader.update(executionContext);
+		reader.close();
+
+		PipelinedItemReader<Row, String> restarted = reader(row -> "row" + row.number(), null, 3);
+		restarted.open(executionContext);
+		Row next = restarted.read();
+		restarted.close();
+
+		assertThat(next.number()).isEqualTo(5);
+	}
+
+	@Test
+	void readerWithoutSavedStateStartsOver() throws Exception {
+		ExecutionContext executionContext = new ExecutionContext();
+		PipelinedItemReader<Row, String> reader = reader(row -> "row" + row.number(), null, 3);
+		reader.setSaveState(false);
+		reader.open(executionContext);
+		reader.read();
+		reader.read();
+		reader.update(executionContext);
+		reader.close();
+
+		PipelinedItemReader<Row, String> restarted = reader(row -> "row" + row.number(), null, 3);
+		restarted.setSaveState(false);
+		restarted.open(executionContext);
+		Row next = restarted.read();
+		restarted.close();
+
+		assertThat(next.number()).isZero();
+	}
+
+	@Test
+	void closeDropsTheResultsNotAskedFor() throws Exception {
+		AtomicInteger processed = new AtomicInteger();
+		PipelinedItemReader<Row, String> reader = reader(row -> {
+			processed.incrementAndGet();
+			return "row" + row.number();
+		}, null, ROWS);
+		reader.open(new ExecutionContext());
+		Row first = reader.read();
+		reader.close();
+		int processedByTheStages = processed.get();
+
+		assertThat(reader.process(first)).isEqualTo("row0");
+		assertThat(processed.get()).isEqualTo(processedByTheStages + 1);
+	}
+
+	@Test
+	@Timeout(10)
+	void errorOfTheReadStageReachesTheStepWhenTheQueueIsFull() throws Exception {
+		CountDownLatch errorThrown = new CountDownLatch(1);
+		RowReader delegate = new RowReader(2, errorThrown);
+		PipelinedItemReader<Row, String> reader = new PipelinedItemReader<>(delegate, row -> "row" + row.number(),
+				null, 2, 1, taskExecutor, taskExecutor);
+		reader.open(new ExecutionContext());
+		// the first batch fills the queue, the read stage fails with nobody taking batches
+		errorThrown.await();
+		Thread.sleep(200);
+
+		assertThat(reader.read().number()).isZero();
+		assertThat(reader.read().number()).isEqualTo(1);
+		assertThatThrownBy(reader::read).isInstanceOf(OutOfMemoryError.class);
+		reader.close();
+	}
+
+	private PipelinedItemReader<Row, String> reader(ItemProcessor<Row, String> processor,
+			ItemProcessor<String, String> orderedProcessor, int batchSize) {
+		return new PipelinedItemReader<>(new RowReader(), processor, orderedProcessor, batchSize, 2, taskExecutor,
+				taskExecutor);
+	}
+
+	private static List<Integer> range(int from, int to) {
+		List<Integer> numbers = new ArrayList<>();
+		for (int number = from; number < to; number++) {
+			numbers.add(number);
+		}
+		return numbers;
+	}
+
+	private record Row(int number) {
+	}
+
+	/**
+	 * Restartable reader of {@value #ROWS} rows, a new instance for every read, optionally failing with an
+	 * {@link Error} at one row.
+	 */
+	private static final class RowReader extends AbstractItemCountingItemStreamItemReader<Row> {
+
+		private final int errorAt;
+		private final CountDownLatch errorThrown;
+		private int next;
+
+		private RowReader() {
+			this(-1, new CountDownLatch(1));
+		}
+
+		private RowReader(int errorAt, CountDownLatch errorThrown) {
+			this.errorAt = errorAt;
+			this.errorThrown = errorThrown;
+			setName("rows");
+		}
+
+		@Override
+		protected Row doRead() {
+			if (next == errorAt) {
+				errorThrown.countDown();
+				throw new OutOfMemoryError("row " + next);
+			}
+			return next < ROWS ? new Row(next++) : null;
+		}
+
+		@Override
+		protected void doOpen() {
+			next = 0;
+		}
+
+		@Override
+		protected void doClose() {
+		}
+	}
+}
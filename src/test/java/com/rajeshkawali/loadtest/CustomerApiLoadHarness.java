@@ -0,0 +1,130 @@
+package com.rajeshkawali.loadtest;
+
+import com.rajeshkawali.SpringbootBatchApplication;
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.repository.CustomerRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Load test harness comparing platform and virtual thread request handling. For each mode it starts the
+ * application on a random port, seeds customers and hammers {@code /v1/customer/{id}} and
+ * {@code /v1/customer/getAll} with concurrent clients, then prints throughput and p50/p99 latency.
+ * <p>
+ * Not part of the test suite, run it from the IDE or with
+ * {@code java -cp target/test-classes:<runtime classpath> com.rajeshkawali.loadtest.CustomerApiLoadHarness [clients] [seconds] [customers]}.
+ * The virtual thread mode is skipped on a JVM older than 21.
+ *
+ * @author Rajesh_Kawali
+ */
+public class CustomerApiLoadHarness {
+
+	private static final int WARMUP_SECONDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		int customers = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		run(false, clients, seconds, customers);
+		if (Runtime.version().feature() >= 21) {
+			run(true, clients, seconds, customers);
+		} else {
+			System.out.println("Skipping virtual thread mode, it needs Java 21");
+		}
+	}
+
+	private static void run(boolean virtualThreads, int clients, int seconds, int customers) throws Exception {
+		String[] properties = {
+				"--server.port=0",
+				"--spring.threads.virtual.enabled=" + virtualThreads,
+				"--spring.jpa.show-sql=false",
+				"--logging.level.com.rajeshkawali=WARN" };
+		try (ConfigurableApplicationContext context = SpringApplication.run(SpringbootBatchApplication.class, properties)) {
+			CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+			List<Customer> seed = IntStream.range(0, customers)
+					.mapToObj(i -> Customer.builder()
+							.firstName("First" + i)
+							.surname("Surname" + i)
+							.smoothiePreference("Mango")
+							.mobileNumber(9000000000L + i)
+							.build())
+					.toList();
+			long[] ids = customerRepository.saveAll(seed).stream().mapToLong(Customer::getId).toArray();
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			String baseUrl = "http://localhost:" + port + "/api/v1/customer/";
+			String mode = virtualThreads ? "virtual" : "platform";
+
+			load(baseUrl, ids, false, clients, WARMUP_SECONDS);
+			report(mode, "GET /v1/customer/{id}", load(baseUrl, ids, false, clients, seconds), seconds);
+			report(mode, "GET /v1/customer/getAll", load(baseUrl, ids, true, clients, seconds), seconds);
+		}
+	}
+
+	private static long[] load(String baseUrl, long[] ids, boolean getAll, int clients, int seconds) throws Exception {
+		HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<long[]>> results = new ArrayList<>(clients);
+			for (int i = 0; i < clients; i++) {
+				results.add(executor.submit(() -> {
+					long[] latencies = new long[1024];
+					int count = 0;
+					while (System.nanoTime() < deadline) {
+						String path = getAll ? "getAll" : String.valueOf(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+						HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+						long start = System.nanoTime();
+						httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+						if (count == latencies.length) {
+							latencies = Arrays.copyOf(latencies, count * 2);
+						}
+						latencies[count++] = System.nanoTime() - start;
+					}
+					return Arrays.copyOf(latencies, count);
+				}));
+			}
+			List<long[]> perClient = new ArrayList<>(clients);
+			for (Future<long[]> result : results) {
+				perClient.add(result.get());
+			}
+			long[] all = perClient.stream().flatMapToLong(Arrays::stream).toArray();
+			Arrays.sort(all);
+			return all;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void report(String mode, String endpoint, long[] sortedLatencies, int seconds) {
+		if (sortedLatencies.length == 0) {
+			System.out.printf("%-8s %-26s no requests completed%n", mode, endpoint);
+			return;
+		}
+		System.out.printf("%-8s %-26s %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms%n", mode, endpoint,
+				sortedLatencies.length / (double) seconds,
+				percentile(sortedLatencies, 0.50) / 1_000_000.0,
+				percentile(sortedLatencies, 0.99) / 1_000_000.0);
+	}
+
+	private static long percentile(long[] sortedLatencies, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+		return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+	}
+}
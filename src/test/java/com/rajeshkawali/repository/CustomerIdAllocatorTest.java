@@ -0,0 +1,112 @@
+package com.rajeshkawali.repository;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.entity.CustomerIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerIdAllocatorTest {
+
+	private static final int BLOCK_SIZE = 50;
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private H2SequenceMaxValueIncrementer sequence;
+	private CustomerIdAllocator idAllocator;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:customer-inventory.sql").build();
+		jdbcTemplate = new JdbcTemplate(database);
+		sequence = new H2SequenceMaxValueIncrementer(database, CustomerIdGenerator.SEQUENCE_NAME);
+		idAllocator = new CustomerIdAllocator(database, sequence, BLOCK_SIZE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void idsOfOneBlockComeFromOneSequenceCall() {
+		idAllocator.assignIds(withoutIds(1));
+		List<Customer> customers = withoutIds(BLOCK_SIZE);
+
+		idAllocator.assignIds(customers);
+
+		assertThat(customers).extracting(Customer::getId).doesNotHaveDuplicates()
+				.allSatisfy(id -> assertThat(id).isBetween(2L, 1L + BLOCK_SIZE));
+	}
+
+	@Test
+	void idsSetOnTheCustomerAreKept() {
+		List<Customer> customers = withoutIds(2);
+		customers.get(0).setId(500L);
+
+		idAllocator.assignIds(customers);
+
+		assertThat(customers.get(0).getId()).isEqualTo(500L);
+		assertThat(customers.get(1).getId()).isNotNull().isNotEqualTo(500L);
+	}
+
+	@Test
+	void advancingMovesTheNextIdsPastTheStoredOnes() {
+		idAllocator.assignIds(withoutIds(1));
+		insertRows(1, 120);
+
+		idAllocator.advancePastStoredIds();
+		List<Customer> customers = withoutIds(3);
+		idAllocator.assignIds(customers);
+
+		assertThat(customers).extracting(Customer::getId).allSatisfy(id -> assertThat(id).isGreaterThan(120));
+		assertThat(sequence.nextLongValue() - BLOCK_SIZE).isGreaterThanOrEqualTo(120 + BLOCK_SIZE);
+	}
+
+	@Test
+	void advancingNeverMovesTheSequenceBack() {
+		for (int i = 0; i < 10; i++) {
+			sequence.nextLongValue();
+		}
+		long sequenceValue = sequence.nextLongValue();
+		insertRows(1, 3);
+
+		idAllocator.advancePastStoredIds();
+
+		assertThat(sequence.nextLongValue()).isGreaterThan(sequenceValue);
+	}
+
+	@Test
+	void advancingAnEmptyTableChangesNothing() {
+		idAllocator.advancePastStoredIds();
+
+		List<Customer> customers = withoutIds(1);
+		idAllocator.assignIds(customers);
+		assertThat(customers.get(0).getId()).isEqualTo(1L);
+	}
+
+	private void insertRows(long firstId, long lastId) {
+		for (long id = firstId; id <= lastId; id++) {
+			jdbcTemplate.update("INSERT INTO customer_inventory (id, first_name, surname) VALUES (?, 'Rajesh', 'Kawali')", id);
+		}
+	}
+
+	private static List<Customer> withoutIds(int count) {
+		List<Customer> customers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			customers.add(new Customer());
+		}
+		return customers;
+	}
+}
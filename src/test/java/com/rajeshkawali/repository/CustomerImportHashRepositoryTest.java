@@ -0,0 +1,64 @@
+package com.rajeshkawali.repository;
+
+import com.rajeshkawali.util.OffHeapLongLongMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerImportHashRepositoryTest {
+
+	private EmbeddedDatabase database;
+	private CustomerImportHashRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:customer-inventory.sql").build();
+		repository = new CustomerImportHashRepository(database);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void savedHashesAreLoadedAndReplaced() {
+		repository.saveAll(new long[] { 1, 2, 3 }, new long[] { 10, 20, 30 }, 2);
+		repository.saveAll(new long[] { 2, 3 }, new long[] { 21, 31 }, 2);
+
+		OffHeapLongLongMap hashes = repository.loadAll();
+
+		assertThat(hashes.size()).isEqualTo(3);
+		assertThat(hashes.get(1, 0)).isEqualTo(10);
+		assertThat(hashes.get(2, 0)).isEqualTo(21);
+		assertThat(hashes.get(3, 0)).isEqualTo(31);
+	}
+
+	@Test
+	void deletedKeysAreForgotten() {
+		repository.saveAll(new long[] { 1, 2, 3 }, new long[] { 10, 20, 30 }, 3);
+
+		repository.deleteAll(List.of(1L, 3L, 4L));
+
+		OffHeapLongLongMap hashes = repository.loadAll();
+		assertThat(hashes.size()).isEqualTo(1);
+		assertThat(hashes.containsKey(2)).isTrue();
+	}
+
+	@Test
+	void deleteAllForgetsEveryKey() {
+		repository.saveAll(new long[] { 1, 2 }, new long[] { 10, 20 }, 2);
+
+		repository.deleteAll();
+
+		assertThat(repository.loadAll().size()).isZero();
+	}
+}
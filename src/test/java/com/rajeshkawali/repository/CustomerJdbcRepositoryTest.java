@@ -0,0 +1,113 @@
+package com.rajeshkawali.repository;
+
+import com.rajeshkawali.entity.Customer;
+import com.rajeshkawali.entity.CustomerIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerJdbcRepositoryTest {
+
+	private EmbeddedDatabase database;
+	private JdbcTemplate jdbcTemplate;
+	private CustomerJdbcRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2)
+				.addScript("classpath:customer-inventory.sql").build();
+		jdbcTemplate = new JdbcTemplate(database);
+		repository = new CustomerJdbcRepository(jdbcTemplate, new CustomerIdAllocator(database,
+				new H2SequenceMaxValueIncrementer(database, CustomerIdGenerator.SEQUENCE_NAME), 50));
+		ReflectionTestUtils.setField(repository, "upsertKey", "id");
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void mergeOnIdUpdatesEveryOtherColumn() {
+		String sql = CustomerJdbcRepository.mergeSql(List.of("id"));
+
+		assertThat(sql).contains("ON t.id = s.id ")
+				.contains("WHEN MATCHED THEN UPDATE SET first_name = s.first_name, surname = s.surname, "
+						+ "surname_normalized = s.surname_normalized, smoothie_preference = s.smoothie_preference, "
+						+ "mobile_number = s.mobile_number ")
+				.endsWith("WHEN NOT MATCHED THEN INSERT (id, first_name, surname, surname_normalized, "
+						+ "smoothie_preference, mobile_number) VALUES (s.id, s.first_name, s.surname, "
+						+ "s.surname_normalized, s.smoothie_preference, s.mobile_number)");
+	}
+
+	@Test
+	void mergeOnANaturalKeyNeitherUpdatesTheKeyNorTheId() {
+		String sql = CustomerJdbcRepository.mergeSql(List.of("surname", "mobile_number"));
+
+		assertThat(sql).contains("ON t.surname = s.surname AND t.mobile_number = s.mobile_number ")
+				.contains("UPDATE SET first_name = s.first_name, surname_normalized = s.surname_normalized, "
+						+ "smoothie_preference = s.smoothie_preference ")
+				.doesNotContain("id = s.id,");
+	}
+
+	@Test
+	void mergeOnEveryColumnHasNoUpdateClause() {
+		String sql = CustomerJdbcRepository.mergeSql(
+				List.of("first_name", "surname", "surname_normalized", "smoothie_preference", "mobile_number"));
+
+		assertThat(sql).doesNotContain("WHEN MATCHED").contains("WHEN NOT MATCHED THEN INSERT");
+	}
+
+	@Test
+	void unknownKeyPropertyIsRejected() {
+		assertThatThrownBy(() -> CustomerJdbcRepository.keyProperties("surname, email"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("email");
+		assertThat(CustomerJdbcRepository.keyColumns("surname, mobileNumber"))
+				.containsExactly("surname", "mobile_number");
+	}
+
+	@Test
+	void upsertByIdInsertsNewRowsAndUpdatesStoredOnes() {
+		repository.upsertAll(List.of(customer(1L, "Rajesh", "Kawali", 9876543210L)));
+
+		repository.upsertAll(List.of(customer(1L, "Ravi", "Kawali", 9876543210L),
+				customer(2L, "Asha", "Rao", 9876543211L)));
+
+		assertThat(jdbcTemplate.queryForList("SELECT first_name FROM customer_inventory ORDER BY id", String.class))
+				.containsExactly("Ravi", "Asha");
+	}
+
+	@Test
+	void upsertByNaturalKeyKeepsTheStoredId() {
+		ReflectionTestUtils.setField(repository, "upsertKey", "surname,mobileNumber");
+		repository.upsertAll(List.of(customer(7L, "Rajesh", "Kawali", 9876543210L)));
+
+		repository.upsertAll(List.of(customer(99L, "Ravi", "Kawali", 9876543210L)));
+
+		assertThat(repository.isUpsertKeyedById()).isFalse();
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM customer_inventory", Long.class)).containsExactly(7L);
+		assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM customer_inventory WHERE id = 7", String.class))
+				.isEqualTo("Ravi");
+	}
+
+	private static Customer customer(Long id, String firstName, String surname, Long mobileNumber) {
+		return Customer.builder()
+				.id(id)
+				.firstName(firstName)
+				.surname(surname)
+				.smoothiePreference("Mango")
+				.mobileNumber(mobileNumber)
+				.build();
+	}
+}
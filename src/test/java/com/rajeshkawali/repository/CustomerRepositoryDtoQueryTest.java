@@ -0,0 +1,71 @@
+package com.rajeshkawali.repository;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.entity.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The dto queries binding named parameters.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:customer-repository-dto-query",
+		"customer.import.async=false",
+		"spring.jpa.show-sql=false" })
+class CustomerRepositoryDtoQueryTest {
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Test
+	void dtoByIdIsFound() {
+		Customer stored = customerRepository.save(customer("Rajesh", "Kulkarni"));
+
+		assertThat(customerRepository.findDtoById(stored.getId()))
+				.hasValueSatisfying(dto -> assertThat(dto.getSurname()).isEqualTo("Kulkarni"));
+	}
+
+	@Test
+	void dtosBySurnameComeInIdOrder() {
+		Customer first = customerRepository.save(customer("Rajesh", "Desai"));
+		customerRepository.save(customer("Ravi", "Desai"));
+
+		List<CustomerDTO> dtos = customerRepository.findDtosBySurname("Desai", PageRequest.of(0, 1));
+
+		assertThat(dtos).extracting(CustomerDTO::getId).containsExactly(first.getId());
+	}
+
+	@Test
+	void dtosByNormalizedSurnameIgnoreTheCase() {
+		customerRepository.save(customer("Rajesh", "Hegde"));
+		customerRepository.save(customer("Ravi", "HEGDE"));
+
+		assertThat(customerRepository.findDtosBySurnameNormalized("hegde", PageRequest.of(0, 10)).getTotalElements())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void keysetPageStartsAfterTheGivenId() {
+		Customer first = customerRepository.save(customer("Rajesh", "Gowda"));
+		Customer second = customerRepository.save(customer("Ravi", "Gowda"));
+
+		List<CustomerDTO> dtos = customerRepository.findDtosByIdGreaterThan(first.getId(), PageRequest.of(0, 1));
+
+		assertThat(dtos).extracting(CustomerDTO::getId).containsExactly(second.getId());
+	}
+
+	private static Customer customer(String firstName, String surname) {
+		return Customer.builder()
+				.firstName(firstName)
+				.surname(surname)
+				.smoothiePreference("Mango")
+				.mobileNumber(9876543210L)
+				.build();
+	}
+}
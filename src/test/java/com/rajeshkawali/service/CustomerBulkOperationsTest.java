@@ -0,0 +1,78 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.BulkOperationResultDTO;
+import com.rajeshkawali.dto.CustomerDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outcomes of the bulk update and delete, and the cached lookups they leave behind.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:customer-bulk-operations",
+		"customer.import.async=false",
+		"spring.jpa.show-sql=false" })
+class CustomerBulkOperationsTest {
+
+	private static final long MISSING_ID = Long.MAX_VALUE;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Test
+	void bulkUpdateReportsAnOutcomePerCustomer() {
+		CustomerDTO stored = customerService.addCustomer(newCustomer("Patil"));
+		CustomerDTO withoutId = CustomerDTO.builder().surname("Rao").build();
+
+		List<BulkOperationResultDTO> results = customerService.bulkUpdateCustomers(List.of(
+				CustomerDTO.builder().id(stored.getId()).smoothiePreference("Banana").build(),
+				withoutId,
+				CustomerDTO.builder().id(MISSING_ID).smoothiePreference("Banana").build()));
+
+		assertThat(results).extracting(BulkOperationResultDTO::getOutcome).containsExactly(
+				CustomerConstants.OUTCOME_UPDATED, CustomerConstants.OUTCOME_INVALID, CustomerConstants.OUTCOME_NOT_FOUND);
+		assertThat(results).extracting(BulkOperationResultDTO::getId).containsExactly(stored.getId(), null, MISSING_ID);
+	}
+
+	@Test
+	void bulkUpdateKeepsTheBlankFieldsAndRefreshesTheCachedLookup() {
+		CustomerDTO stored = customerService.addCustomer(newCustomer("Shetty"));
+		assertThat(customerService.customerById(stored.getId()).getSmoothiePreference()).isEqualTo("Mango");
+
+		customerService.bulkUpdateCustomers(List.of(
+				CustomerDTO.builder().id(stored.getId()).firstName(" ").smoothiePreference("Banana").build()));
+
+		CustomerDTO updated = customerService.customerById(stored.getId());
+		assertThat(updated.getSmoothiePreference()).isEqualTo("Banana");
+		assertThat(updated.getFirstName()).isEqualTo("Rajesh");
+	}
+
+	@Test
+	void bulkDeleteReportsAnOutcomePerIdAndRefreshesTheCachedLookup() {
+		CustomerDTO stored = customerService.addCustomer(newCustomer("Naik"));
+		assertThat(customerService.customerById(stored.getId())).isNotNull();
+
+		List<BulkOperationResultDTO> results = customerService.bulkDeleteCustomers(
+				Arrays.asList(stored.getId(), null, MISSING_ID));
+
+		assertThat(results).extracting(BulkOperationResultDTO::getOutcome).containsExactly(
+				CustomerConstants.OUTCOME_DELETED, CustomerConstants.OUTCOME_INVALID, CustomerConstants.OUTCOME_NOT_FOUND);
+		assertThat(customerService.customerById(stored.getId())).isNull();
+	}
+
+	private static CustomerDTO newCustomer(String surname) {
+		return CustomerDTO.builder()
+				.firstName("Rajesh")
+				.surname(surname)
+				.smoothiePreference("Mango")
+				.mobileNumber(9876543210L)
+				.build();
+	}
+}
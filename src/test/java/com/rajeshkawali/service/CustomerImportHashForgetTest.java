@@ -0,0 +1,65 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.repository.CustomerImportHashRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Customers changed through the api must be written again by the next delta import.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:customer-import-hash-forget",
+		"customer.import.async=false",
+		"spring.jpa.show-sql=false" })
+class CustomerImportHashForgetTest {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerImportHashRepository customerImportHashRepository;
+
+	@Test
+	void updateDropsTheHashOfTheCustomer() {
+		CustomerDTO stored = customerService.addCustomer(newCustomer("Patil"));
+		customerImportHashRepository.saveAll(new long[] { stored.getId() }, new long[] { 1 }, 1);
+
+		customerService.updateCustomer(stored.getId(), CustomerDTO.builder().smoothiePreference("Banana").build());
+
+		assertThat(customerImportHashRepository.loadAll().containsKey(stored.getId())).isFalse();
+	}
+
+	@Test
+	void deleteAndBulkOperationsDropTheHashesOfTheirCustomers() {
+		CustomerDTO deleted = customerService.addCustomer(newCustomer("Rao"));
+		CustomerDTO bulkUpdated = customerService.addCustomer(newCustomer("Naik"));
+		CustomerDTO bulkDeleted = customerService.addCustomer(newCustomer("Shetty"));
+		CustomerDTO untouched = customerService.addCustomer(newCustomer("Joshi"));
+		customerImportHashRepository.saveAll(
+				new long[] { deleted.getId(), bulkUpdated.getId(), bulkDeleted.getId(), untouched.getId() },
+				new long[] { 1, 2, 3, 4 }, 4);
+
+		customerService.deleteCustomer(deleted.getId());
+		customerService.bulkUpdateCustomers(
+				List.of(CustomerDTO.builder().id(bulkUpdated.getId()).smoothiePreference("Banana").build()));
+		customerService.bulkDeleteCustomers(List.of(bulkDeleted.getId()));
+
+		assertThat(customerImportHashRepository.loadAll().size()).isEqualTo(1);
+		assertThat(customerImportHashRepository.loadAll().containsKey(untouched.getId())).isTrue();
+	}
+
+	private static CustomerDTO newCustomer(String surname) {
+		return CustomerDTO.builder()
+				.firstName("Rajesh")
+				.surname(surname)
+				.smoothiePreference("Mango")
+				.mobileNumber(9876543210L)
+				.build();
+	}
+}
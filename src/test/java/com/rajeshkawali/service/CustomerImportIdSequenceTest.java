@@ -0,0 +1,74 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.dto.CustomerDTO;
+import com.rajeshkawali.dto.JobExecutionDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The import stores the ids of the csv, customers added afterwards must get ids the import didn't use.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:customer-import-id-sequence",
+		"customer.import.async=false",
+		"spring.jpa.show-sql=false" })
+class CustomerImportIdSequenceTest {
+
+	private static final int IMPORTED_ROWS = 120;
+
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void importBaseDir(DynamicPropertyRegistry registry) {
+		registry.add("customer.import.base-dir", () -> directory.toString());
+	}
+
+	@Autowired
+	private CustomerJobService customerJobService;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Test
+	void customerAddedAfterAnImportGetsAnIdAboveTheImportedOnes() throws Exception {
+		CustomerDTO addedBefore = customerService.addCustomer(newCustomer());
+		long firstImportedId = addedBefore.getId() + 1;
+
+		JobExecutionDTO importExecution = customerJobService.launchImport(writeCsv(firstImportedId).toString());
+		CustomerDTO addedAfter = customerService.addCustomer(newCustomer());
+
+		assertThat(importExecution.getStatus()).isEqualTo("COMPLETED");
+		assertThat(customerService.customerById(firstImportedId + IMPORTED_ROWS - 1)).isNotNull();
+		assertThat(addedAfter.getId()).isGreaterThan(firstImportedId + IMPORTED_ROWS - 1);
+	}
+
+	private Path writeCsv(long firstId) throws IOException {
+		StringBuilder csv = new StringBuilder("id,firstName,surname,smoothiePreference,mobileNumber\n");
+		for (long id = firstId; id < firstId + IMPORTED_ROWS; id++) {
+			csv.append(id).append(",Rajesh,Kawali,Mango,").append(9876500000L + id).append('\n');
+		}
+		Path file = directory.resolve("customers.csv");
+		Files.writeString(file, csv);
+		return file;
+	}
+
+	private static CustomerDTO newCustomer() {
+		return CustomerDTO.builder()
+				.firstName("Ravi")
+				.surname("Joshi")
+				.smoothiePreference("Apple")
+				.mobileNumber(9988776655L)
+				.build();
+	}
+}
@@ -0,0 +1,118 @@
+package com.rajeshkawali.service;
+
+import com.rajeshkawali.constant.CustomerConstants;
+import com.rajeshkawali.dto.JobExecutionDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CustomerJobServiceImplTest {
+
+	private final JobLauncher jobLauncher = mock(JobLauncher.class);
+	private final JobLauncher asyncJobLauncher = mock(JobLauncher.class);
+	private final JobExplorer jobExplorer = mock(JobExplorer.class);
+	private final Job job = mock(Job.class);
+
+	private CustomerJobServiceImpl customerJobService;
+
+	@BeforeEach
+	void setUp() {
+		customerJobService = new CustomerJobServiceImpl(jobLauncher, asyncJobLauncher, jobExplorer, job);
+		ReflectionTestUtils.setField(customerJobService, "asyncLaunch", true);
+		ReflectionTestUtils.setField(customerJobService, "defaultInputFile", "customers.csv");
+		ReflectionTestUtils.setField(customerJobService, "importBaseDir", "imports");
+	}
+
+	@Test
+	void acceptedLaunchReturnsTheExecution() throws Exception {
+		when(asyncJobLauncher.run(eq(job), any(JobParameters.class)))
+				.thenReturn(execution(1L, BatchStatus.STARTING, ExitStatus.UNKNOWN));
+
+		JobExecutionDTO jobExecution = customerJobService.launchImport(null);
+
+		assertThat(jobExecution.getExecutionId()).isEqualTo(1L);
+		assertThat(jobExecution.getStatus()).isEqualTo("STARTING");
+	}
+
+	@Test
+	void launchRejectedByTheFullQueueThrows() throws Exception {
+		when(asyncJobLauncher.run(eq(job), any(JobParameters.class)))
+				.thenReturn(execution(2L, BatchStatus.FAILED, rejected()));
+
+		assertThatThrownBy(() -> customerJobService.launchImport(null)).isInstanceOf(TaskRejectedException.class)
+				.hasMessageContaining("2");
+	}
+
+	@Test
+	void restartRejectedByTheFullQueueThrows() throws Exception {
+		JobExecution previousExecution = execution(3L, BatchStatus.FAILED, ExitStatus.FAILED);
+		when(jobExplorer.getJobExecution(3L)).thenReturn(previousExecution);
+		when(asyncJobLauncher.run(job, previousExecution.getJobParameters()))
+				.thenReturn(execution(4L, BatchStatus.FAILED, rejected()));
+
+		assertThatThrownBy(() -> customerJobService.restartImport(3L)).isInstanceOf(TaskRejectedException.class);
+	}
+
+	@Test
+	void failedSynchronousRunIsReturnedAsIs() throws Exception {
+		ReflectionTestUtils.setField(customerJobService, "asyncLaunch", false);
+		when(jobLauncher.run(eq(job), any(JobParameters.class)))
+				.thenReturn(execution(5L, BatchStatus.FAILED, ExitStatus.FAILED));
+
+		assertThat(customerJobService.launchImport(null).getStatus()).isEqualTo("FAILED");
+	}
+
+	@Test
+	void inputIsResolvedAgainstTheBaseDirectory() throws Exception {
+		when(asyncJobLauncher.run(eq(job), any(JobParameters.class)))
+				.thenReturn(execution(6L, BatchStatus.STARTING, ExitStatus.UNKNOWN));
+
+		customerJobService.launchImport("drops/customers-*.csv");
+
+		ArgumentCaptor<JobParameters> jobParameters = ArgumentCaptor.forClass(JobParameters.class);
+		verify(asyncJobLauncher).run(eq(job), jobParameters.capture());
+		assertThat(jobParameters.getValue().getString(CustomerConstants.INPUT_FILE_PARAMETER))
+				.isEqualTo(Path.of("imports/drops/customers-*.csv").toAbsolutePath().toString());
+	}
+
+	@Test
+	void inputOutsideTheBaseDirectoryIsRejectedBeforeLaunching() {
+		assertThatThrownBy(() -> customerJobService.launchImport("../application.properties"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> customerJobService.launchImport("/etc/passwd"))
+				.isInstanceOf(IllegalArgumentException.class);
+		verifyNoInteractions(asyncJobLauncher, jobLauncher);
+	}
+
+	private static ExitStatus rejected() {
+		return ExitStatus.FAILED.addExitDescription(new TaskRejectedException("Executor rejected the task"));
+	}
+
+	private static JobExecution execution(Long id, BatchStatus status, ExitStatus exitStatus) {
+		JobExecution jobExecution = new JobExecution(new JobInstance(id, "importCustomers"), id, new JobParameters());
+		jobExecution.setStatus(status);
+		jobExecution.setExitStatus(exitStatus);
+		return jobExecution;
+	}
+}
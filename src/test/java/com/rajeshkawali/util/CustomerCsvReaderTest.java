@@ -0,0 +1,57 @@
+package com.rajeshkawali.util;
+
+import com.rajeshkawali.dto.CustomerCsv;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCsvReaderTest {
+
+	@Test
+	void columnsAreFoundByHeaderNameInAnyCaseAndOrder() throws IOException {
+		List<CustomerCsv> rows = read("SURNAME, mobileNumber,id,firstName\nKawali,9876543210,7,Rajesh\n");
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).getId()).isEqualTo(7L);
+		assertThat(rows.get(0).getFirstName()).isEqualTo("Rajesh");
+		assertThat(rows.get(0).getSurname()).isEqualTo("Kawali");
+		assertThat(rows.get(0).getSmoothiePreference()).isNull();
+		assertThat(rows.get(0).getMobileNumber()).isEqualTo(9876543210L);
+	}
+
+	@Test
+	void emptyLinesAndEmptyValuesAreIgnored() throws IOException {
+		List<CustomerCsv> rows = read("id,firstName,surname,smoothiePreference,mobileNumber\n\n7,Rajesh,Kawali,,\n\n");
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).getSmoothiePreference()).isNull();
+		assertThat(rows.get(0).getMobileNumber()).isNull();
+	}
+
+	@Test
+	void rowsWithAnInvalidNumberAreSkippedAndTheirLinesKept() throws IOException {
+		CustomerCsvReader csvReader = new CustomerCsvReader(new StringReader(
+				"id,firstName,surname,smoothiePreference,mobileNumber\n"
+						+ "1,Rajesh,Kawali,Mango,9876543210\n"
+						+ "x2,Ravi,Joshi,Apple,9876543211\n"
+						+ "3,Asha,Rao,Kiwi,not-a-number\n"
+						+ "4,Meera,Naik,Banana,9876543213\n"));
+
+		List<CustomerCsv> rows = new ArrayList<>();
+		csvReader.forEach(rows::add);
+
+		assertThat(rows).extracting(CustomerCsv::getId).containsExactly(1L, 4L);
+		assertThat(csvReader.getSkippedLines()).containsExactly(3L, 4L);
+	}
+
+	private static List<CustomerCsv> read(String csv) throws IOException {
+		List<CustomerCsv> rows = new ArrayList<>();
+		new CustomerCsvReader(new StringReader(csv)).forEach(rows::add);
+		return rows;
+	}
+}
@@ -0,0 +1,55 @@
+package com.rajeshkawali.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongDuplicateFilterTest {
+
+	@Test
+	void secondOccurrenceOfAKeyIsADuplicate() {
+		LongDuplicateFilter filter = new LongDuplicateFilter(100);
+
+		assertThat(filter.isDuplicate(0)).isFalse();
+		assertThat(filter.isDuplicate(9876543210L)).isFalse();
+		assertThat(filter.isDuplicate(9876543210L)).isTrue();
+		assertThat(filter.isDuplicate(0)).isTrue();
+
+		assertThat(filter.size()).isEqualTo(2);
+		assertThat(filter.memoryBytes()).isPositive();
+	}
+
+	@Test
+	void concurrentThreadsSeeEveryKeyAsNewExactlyOnce() throws Exception {
+		LongDuplicateFilter filter = new LongDuplicateFilter(1_000);
+		AtomicLong newKeys = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (long key = 0; key < 20_000; key++) {
+						if (!filter.isDuplicate(key)) {
+							newKeys.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(newKeys.get()).isEqualTo(20_000);
+		assertThat(filter.size()).isEqualTo(20_000);
+	}
+}
@@ -0,0 +1,91 @@
+package com.rajeshkawali.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapLongLongMapTest {
+
+	@Test
+	void putReplacesTheValueOfAnExistingKey() {
+		OffHeapLongLongMap map = new OffHeapLongLongMap(4);
+
+		assertThat(map.put(7, 70)).isTrue();
+		assertThat(map.put(7, 71)).isFalse();
+
+		assertThat(map.get(7, -1)).isEqualTo(71);
+		assertThat(map.size()).isEqualTo(1);
+	}
+
+	@Test
+	void missingKeysReturnTheMissingValue() {
+		OffHeapLongLongMap map = new OffHeapLongLongMap(4);
+		map.put(7, 70);
+
+		assertThat(map.get(8, -1)).isEqualTo(-1);
+		assertThat(map.containsKey(8)).isFalse();
+		assertThat(map.containsKey(7)).isTrue();
+	}
+
+	@Test
+	void zeroIsAnOrdinaryKey() {
+		OffHeapLongLongMap map = new OffHeapLongLongMap(4);
+
+		assertThat(map.containsKey(0)).isFalse();
+		assertThat(map.get(0, -1)).isEqualTo(-1);
+		assertThat(map.put(0, 5)).isTrue();
+		assertThat(map.put(0, 6)).isFalse();
+
+		assertThat(map.containsKey(0)).isTrue();
+		assertThat(map.get(0, -1)).isEqualTo(6);
+		assertThat(map.size()).isEqualTo(1);
+	}
+
+	@Test
+	void growsPastTheExpectedSizeAndKeepsEveryEntry() {
+		OffHeapLongLongMap map = new OffHeapLongLongMap(1);
+		long initialBytes = map.memoryBytes();
+
+		for (long key = 1; key <= 10_000; key++) {
+			map.put(key, key * 3);
+		}
+
+		assertThat(map.size()).isEqualTo(10_000);
+		assertThat(map.memoryBytes()).isGreaterThan(initialBytes);
+		for (long key = 1; key <= 10_000; key++) {
+			assertThat(map.get(key, -1)).isEqualTo(key * 3);
+		}
+		assertThat(map.containsKey(10_001)).isFalse();
+	}
+
+	@Test
+	void collidingKeysOfAFullSmallTableAreAllKept() {
+		OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+		Map<Long, Long> expected = new HashMap<>();
+		SplittableRandom random = new SplittableRandom(42);
+		long[] keys = { Long.MIN_VALUE, Long.MAX_VALUE, -1, 1, 1L << 32, 1L << 40, 1L << 48 };
+		for (long key : keys) {
+			map.put(key, ~key);
+			expected.put(key, ~key);
+		}
+		while (expected.size() < 5_000) {
+			long key = random.nextLong();
+			long value = random.nextLong();
+			map.put(key, value);
+			expected.put(key, value);
+		}
+
+		assertThat(map.size()).isEqualTo(expected.size());
+		expected.forEach((key, value) -> assertThat(map.get(key, value + 1)).isEqualTo(value));
+	}
+
+	@Test
+	void memoryIsSizedFromTheExpectedSize() {
+		assertThat(new OffHeapLongLongMap(1_000).memoryBytes()).isEqualTo(2048 * 16);
+		assertThat(new OffHeapLongLongMap(0).memoryBytes()).isEqualTo(16 * 16);
+	}
+}
@@ -0,0 +1,76 @@
+package com.rajeshkawali.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapLongSetTest {
+
+	@Test
+	void addReportsWhetherTheValueIsNew() {
+		OffHeapLongSet set = new OffHeapLongSet(4);
+
+		assertThat(set.add(7)).isTrue();
+		assertThat(set.add(7)).isFalse();
+
+		assertThat(set.contains(7)).isTrue();
+		assertThat(set.contains(8)).isFalse();
+		assertThat(set.size()).isEqualTo(1);
+	}
+
+	@Test
+	void zeroIsAnOrdinaryValue() {
+		OffHeapLongSet set = new OffHeapLongSet(4);
+
+		assertThat(set.contains(0)).isFalse();
+		assertThat(set.add(0)).isTrue();
+		assertThat(set.add(0)).isFalse();
+
+		assertThat(set.contains(0)).isTrue();
+		assertThat(set.size()).isEqualTo(1);
+	}
+
+	@Test
+	void growsPastTheExpectedSizeAndKeepsEveryValue() {
+		OffHeapLongSet set = new OffHeapLongSet(1);
+		long initialBytes = set.memoryBytes();
+
+		for (long value = 1; value <= 10_000; value++) {
+			set.add(value);
+		}
+
+		assertThat(set.size()).isEqualTo(10_000);
+		assertThat(set.memoryBytes()).isGreaterThan(initialBytes);
+		for (long value = 1; value <= 10_000; value++) {
+			assertThat(set.contains(value)).isTrue();
+		}
+		assertThat(set.contains(10_001)).isFalse();
+	}
+
+	@Test
+	void collidingValuesOfAFullSmallTableAreAllKept() {
+		OffHeapLongSet set = new OffHeapLongSet(16);
+		Set<Long> expected = new HashSet<>();
+		SplittableRandom random = new SplittableRandom(42);
+		for (long value : new long[] { Long.MIN_VALUE, Long.MAX_VALUE, -1, 1, 1L << 32, 1L << 48 }) {
+			set.add(value);
+			expected.add(value);
+		}
+		while (expected.size() < 5_000) {
+			long value = random.nextLong();
+			assertThat(set.add(value)).isEqualTo(expected.add(value));
+		}
+
+		assertThat(set.size()).isEqualTo(expected.size());
+		expected.forEach(value -> assertThat(set.contains(value)).isTrue());
+	}
+
+	@Test
+	void memoryIsSizedFromTheExpectedSize() {
+		assertThat(new OffHeapLongSet(1_000).memoryBytes()).isEqualTo(2048 * 8);
+	}
+}
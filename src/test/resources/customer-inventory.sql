@@ -0,0 +1,13 @@
+CREATE TABLE customer_inventory (
+	id BIGINT PRIMARY KEY,
+	first_name VARCHAR(25) NOT NULL,
+	surname VARCHAR(15) NOT NULL,
+	surname_normalized VARCHAR(15),
+	smoothie_preference VARCHAR(255),
+	mobile_number BIGINT
+);
+CREATE SEQUENCE customer_inventory_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE customer_import_hash (
+	customer_key BIGINT PRIMARY KEY,
+	content_hash BIGINT NOT NULL
+);